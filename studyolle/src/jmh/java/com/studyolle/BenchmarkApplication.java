@@ -0,0 +1,37 @@
+package com.studyolle;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * DB나 스프링 빈이 필요한 벤치마크에서 애플리케이션을 띄운다.
+ * local 프로필(H2 메모리 DB)을 사용하고, 측정에 방해가 되는 SQL 로깅은 끈다.
+ * */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /*
+     * application.properties의 로깅 설정보다 우선하도록 커맨드 라인 인자로 넘긴다.
+     * devtools가 클래스패스에 있으면 템플릿 캐시를 끄므로, 운영과 같게 devtools의 기본 설정은 사용하지 않는다.
+     * */
+    public static ConfigurableApplicationContext start(String... args) {
+        return start(new SpringApplicationBuilder(App.class), args);
+    }
+
+    // 빈을 바꾸거나 추가해야 하는 벤치마크는 initializer 등을 설정한 builder를 넘긴다.
+    public static ConfigurableApplicationContext start(SpringApplicationBuilder builder, String... args) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--management.server.port=0",
+                "--spring.devtools.add-properties=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        arguments.addAll(List.of(args));
+        return builder.run(arguments.toArray(String[]::new));
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.studyolle;
+
+import com.studyolle.account.AccountRepository;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import com.studyolle.study.StudyService;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 한 트랜잭션에서 ROWS 개의 계정(회원 가입)과 스터디(스터디 생성)를 저장하는 시간
+ * - batchSize가 0이면 hibernate.jdbc.batch_size 없이 INSERT 마다 실행한다.
+ * - 메모리 DB는 SQL 마다 왕복하는 비용이 없으므로 H2를 TCP 서버로 띄워서 네트워크를 거치게 한다.
+ * 초당 행 수 = ROWS / (ms/op) * 1000
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 100;
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    private Server server;
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private StudyService studyService;
+    private TransactionTemplate transactionTemplate;
+    private Account manager;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = BenchmarkApplication.start(
+                "--spring.datasource.url=jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:bulk",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        accountRepository = context.getBean(AccountRepository.class);
+        studyService = context.getBean(StudyService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        manager = accountRepository.save(Account.builder()
+                .nickname("manager")
+                .email("manager@email.com")
+                .password("{noop}12345678")
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public List<Account> signUp() {
+        List<Account> accounts = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            long n = sequence++;
+            Account account = new Account();
+            account.setNickname("user" + n);
+            account.setEmail("user" + n + "@email.com");
+            account.setPassword("{noop}12345678");
+            account.generateEmailCheckToken();
+            accounts.add(account);
+        }
+        return transactionTemplate.execute(status -> accountRepository.saveAll(accounts));
+    }
+
+    @Benchmark
+    public int createStudy() {
+        return transactionTemplate.execute(status -> {
+            Account account = accountRepository.getOne(manager.getId());
+            for (int i = 0; i < ROWS; i++) {
+                long n = sequence++;
+                Study study = new Study();
+                study.setPath("study-" + n);
+                study.setTitle("스터디 " + n);
+                study.setShortDescription("짧은 소개");
+                study.setFullDescription("<p>긴 소개</p>");
+                studyService.createNewStudy(study, account);
+            }
+            return ROWS;
+        });
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.studyolle;
+
+import com.studyolle.account.AccountRepository;
+import com.studyolle.account.UserAccount;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import com.studyolle.domain.Tag;
+import com.studyolle.domain.Zone;
+import com.studyolle.study.StudyRepository;
+import com.studyolle.tag.TagRepository;
+import com.studyolle.zone.ZoneRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/*
+ * open-in-view를 켰을 때와 껐을 때 요청 하나의 처리 시간과 요청 하나가 커넥션을 잡고 있는 시간
+ * - 로그인한 사용자가 스터디 화면(/study/{path})과 관심 주제 설정 화면(/settings/tags)을 요청한다.
+ * - 커넥션을 잡고 있는 시간은 DataSource를 감싸서 커넥션을 가져와서 돌려줄 때까지의 시간을 모두 더한 것이다.
+ *   (Hikari의 hikaricp.connections.usage는 밀리초 단위라서 사용하지 않는다)
+ * - 요청 수, 커넥션을 가져간 횟수, 커넥션을 잡고 있던 시간의 합을 보조 지표(studyView:heldNanos 등)로 함께 보고한다.
+ *   요청 하나가 커넥션을 잡고 있는 시간은 heldNanos / requests 이다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenInViewBenchmark {
+
+    @Param({"true", "false"})
+    private boolean openInView;
+
+    private final ConnectionHoldTimer holdTimer = new ConnectionHoldTimer();
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private UsernamePasswordAuthenticationToken authentication;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                new SpringApplicationBuilder(App.class).initializers(context ->
+                        context.getBeanFactory().addBeanPostProcessor(holdTimer)),
+                "--spring.jpa.open-in-view=" + openInView);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).apply(springSecurity()).build();
+
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tags.add(Tag.builder().title("tag" + i).build());
+        }
+        tags = context.getBean(TagRepository.class).saveAll(tags);
+        List<Zone> zones = context.getBean(ZoneRepository.class).findAll().subList(0, 5);
+
+        Account account = new Account();
+        account.setNickname("kevin");
+        account.setEmail("kevin@email.com");
+        account.setPassword("{noop}12345678");
+        account.getTags().addAll(tags);
+        account.getZones().addAll(zones);
+        account = context.getBean(AccountRepository.class).save(account);
+
+        Study study = new Study();
+        study.setPath("spring-boot");
+        study.setTitle("스프링 부트 스터디");
+        study.setShortDescription("스프링 부트를 함께 공부합니다.");
+        study.setFullDescription("<p>매주 토요일 오전에 모여서 스프링 부트 레퍼런스를 한 장씩 읽습니다.</p>".repeat(20));
+        study.setPublished(true);
+        study.setRecruiting(true);
+        study.getTags().addAll(tags);
+        study.getZones().addAll(zones);
+        study.addManager(account);
+        context.getBean(StudyRepository.class).save(study);
+
+        UserAccount principal = new UserAccount(account);
+        authentication = new UsernamePasswordAuthenticationToken(principal, principal.getPassword(), principal.getAuthorities());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int studyView(ConnectionUsage usage) throws Exception {
+        return perform(get("/study/spring-boot").with(authentication(authentication)), usage);
+    }
+
+    @Benchmark
+    public int settingsTags(ConnectionUsage usage) throws Exception {
+        return perform(get("/settings/tags").with(authentication(authentication)), usage);
+    }
+
+    private int perform(RequestBuilder request, ConnectionUsage usage) throws Exception {
+        long checkouts = holdTimer.checkouts.get();
+        long heldNanos = holdTimer.totalNanos.get();
+        int contentLength = mockMvc.perform(request).andReturn().getResponse().getContentLength();
+        usage.requests++;
+        usage.checkouts += holdTimer.checkouts.get() - checkouts;
+        usage.heldNanos += holdTimer.totalNanos.get() - heldNanos;
+        return contentLength;
+    }
+
+    // 측정 구간(iteration)마다 JMH가 보조 지표로 보고하는 합계
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ConnectionUsage {
+
+        public long requests;
+        public long checkouts;
+        public long heldNanos;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+            checkouts = 0;
+            heldNanos = 0;
+        }
+
+    }
+
+    // 애플리케이션의 DataSource가 내주는 커넥션마다 close 될 때까지의 시간을 잰다.
+    static class ConnectionHoldTimer implements BeanPostProcessor {
+
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong checkouts = new AtomicLong();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource((DataSource) bean) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return timed(super.getConnection());
+                }
+            };
+        }
+
+        private Connection timed(Connection connection) {
+            long start = System.nanoTime();
+            checkouts.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            totalNanos.addAndGet(System.nanoTime() - start);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.studyolle;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 동시 요청이 많을 때 톰캣 스레드 풀(플랫폼 스레드)과 가상 스레드(app.threads.virtual)의 처리량과 응답 시간 분포 (p99)
+ * - 요청마다 DB를 조회하고(커넥션 풀, 세마포어) 커넥션을 돌려준 다음 SMTP나 외부 API 호출처럼 latency 만큼 블로킹된다.
+ * - 클라이언트 스레드(@Threads)가 톰캣 스레드 수(tomcatThreads)보다 많으므로 플랫폼 스레드는 요청이 큐에서 기다린다.
+ *   CPU가 적은 환경에서도 CPU가 아니라 스레드 수가 처리량을 제한하도록 톰캣 스레드 수를 기본 값(200)보다 작게 둔다.
+ * - SampleTime 모드라서 요청마다 응답 시간을 기록한다. 처리량은 클라이언트 스레드 수 / 평균 응답 시간이다.
+ * - 가상 스레드는 JDK 21 이상에서 실행해야 한다. (JAVA_HOME을 JDK 21로 지정해서 exec:exec를 실행한다)
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(200)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-Djdk.httpclient.keepalive.timeout=60"})
+public class VirtualThreadLoadBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtual;
+
+    @Param({"200"})
+    private long latency;
+
+    @Param({"50"})
+    private int tomcatThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(new SpringApplicationBuilder(App.class, BlockingController.class),
+                "--app.threads.virtual=" + virtual,
+                "--server.tomcat.threads.max=" + tomcatThreads,
+                "--app.sql.repeated-query-threshold=1000");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/search/benchmark/blocking?latency=" + latency))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int request() throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("unexpected status " + response.statusCode());
+        }
+        return response.body().length();
+    }
+
+    // /search/** 는 로그인하지 않아도 요청할 수 있다.
+    @RestController
+    public static class BlockingController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        public BlockingController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @GetMapping("/search/benchmark/blocking")
+        public String blocking(long latency) throws InterruptedException {
+            Long zones = jdbcTemplate.queryForObject("select count(*) from zone", Long.class);
+            Thread.sleep(latency);
+            return String.valueOf(zones);
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.studyolle.account;
+
+import com.studyolle.domain.Account;
+import com.studyolle.settings.form.Profile;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.NameTokenizers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 회원 가입과 프로필 수정에서 사용하는 매핑 비교
+ * - legacy : 이전에 AppConfig에 등록했던 ModelMapper (리플렉션)
+ * - current : MapStruct가 생성한 AccountMapper
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private AccountMapper accountMapper;
+    private SignUpForm signUpForm;
+    private Profile profile;
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setDestinationNameTokenizer(NameTokenizers.UNDERSCORE)
+                .setSourceNameTokenizer(NameTokenizers.UNDERSCORE);
+        accountMapper = Mappers.getMapper(AccountMapper.class);
+
+        signUpForm = new SignUpForm();
+        signUpForm.setNickname("kevin");
+        signUpForm.setEmail("kevin@email.com");
+        signUpForm.setPassword("12345678");
+
+        profile = new Profile();
+        profile.setBio("짧은 자기소개");
+        profile.setUrl("https://studyolle.com");
+        profile.setOccupation("개발자");
+        profile.setLocation("서울");
+
+        account = new Account();
+    }
+
+    @Benchmark
+    public Account legacy_signUpFormToAccount() {
+        return modelMapper.map(signUpForm, Account.class);
+    }
+
+    @Benchmark
+    public Account legacy_profileToAccount() {
+        modelMapper.map(profile, account);
+        return account;
+    }
+
+    @Benchmark
+    public Account current_signUpFormToAccount() {
+        return accountMapper.toAccount(signUpForm);
+    }
+
+    @Benchmark
+    public Account current_profileToAccount() {
+        accountMapper.updateAccount(profile, account);
+        return account;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.studyolle.account;
+
+import com.studyolle.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * PasswordHashingService (BCrypt, 전용 해싱 스레드)
+ * 회원 가입, 패스워드 변경(encode)과 로그인(matches)마다 실행된다.
+ * 스레드 수(-t)를 코어 수보다 늘리면 해싱 스레드 수 만큼만 동시에 실행되고 나머지는 기다리거나 거절된다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"10", "12"})
+    private int strength;
+
+    private PasswordHashingService passwordHashingService;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getPassword().setStrength(strength);
+        passwordHashingService = new PasswordHashingService(appProperties, new SimpleMeterRegistry());
+        encoded = passwordHashingService.encode("12345678");
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        passwordHashingService.shutdown();
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordHashingService.encode("12345678");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordHashingService.matches("12345678", encoded);
+    }
+
+}
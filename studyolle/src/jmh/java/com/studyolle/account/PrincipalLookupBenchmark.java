@@ -0,0 +1,110 @@
+package com.studyolle.account;
+
+import com.studyolle.BenchmarkApplication;
+import com.studyolle.domain.Account;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 로그인할 때의 사용자 조회 비교
+ * - legacy : findByEmail → (없으면) findByNickname, Account 엔티티 조회
+ * - current : AccountService.loadUserByUsername (입력 값에 맞는 인덱스로 한 번 조회, UserAccount 프로젝션, 없는 이름 캐시)
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrincipalLookupBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private AccountService accountService;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        accountRepository = context.getBean(AccountRepository.class);
+        accountService = context.getBean(AccountService.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(Account.builder()
+                    .nickname("user" + i)
+                    .email("user" + i + "@email.com")
+                    .password("{noop}12345678")
+                    .build());
+        }
+        accountRepository.saveAll(accounts);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private static String randomNickname() {
+        return "user" + ThreadLocalRandom.current().nextInt(ACCOUNTS);
+    }
+
+    @Benchmark
+    public Object legacy_byEmail() {
+        String email = randomNickname() + "@email.com";
+        return readOnlyTransaction.execute(status -> legacyLookup(email));
+    }
+
+    @Benchmark
+    public Object legacy_byNickname() {
+        String nickname = randomNickname();
+        return readOnlyTransaction.execute(status -> legacyLookup(nickname));
+    }
+
+    @Benchmark
+    public void legacy_unknown(Blackhole blackhole) {
+        blackhole.consume(readOnlyTransaction.execute(status -> legacyLookup("nobody")));
+    }
+
+    @Benchmark
+    public Object current_byEmail() {
+        return accountService.loadUserByUsername(randomNickname() + "@email.com");
+    }
+
+    @Benchmark
+    public Object current_byNickname() {
+        return accountService.loadUserByUsername(randomNickname());
+    }
+
+    @Benchmark
+    public void current_unknown(Blackhole blackhole) {
+        try {
+            blackhole.consume(accountService.loadUserByUsername("nobody"));
+        } catch (UsernameNotFoundException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    // 변경 전의 AccountService.loadUserByUsername
+    private Object legacyLookup(String emailOrNickname) {
+        Account account = accountRepository.findByEmail(emailOrNickname);
+        if (account == null) {
+            account = accountRepository.findByNickname(emailOrNickname);
+        }
+        return account == null ? null : new UserAccount(account);
+    }
+
+}
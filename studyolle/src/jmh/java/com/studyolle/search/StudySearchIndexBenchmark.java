@@ -0,0 +1,76 @@
+package com.studyolle.search;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 스터디 10만 개를 색인했을 때의 검색 시간
+ * 제목과 소개는 자주 쓰이는 단어와 드물게 쓰이는 단어를 섞어서 만든다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudySearchIndexBenchmark {
+
+    private static final String[] WORDS = {"스프링", "자바", "코틀린", "파이썬", "알고리즘", "데이터베이스", "프론트엔드",
+            "리액트", "쿠버네티스", "도커", "머신러닝", "영어회화", "독서", "토익", "면접", "코딩테스트", "JPA", "spring", "boot",
+            "스터디", "모집", "주말", "평일", "온라인", "오프라인", "초보", "입문", "심화", "프로젝트", "서울", "강남"};
+
+    private static final String[] TAGS = {"spring", "java", "kotlin", "python", "jpa", "react", "docker", "english"};
+
+    @Param("100000")
+    int studies;
+
+    StudySearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new StudySearchIndex();
+        Random random = new Random(42);
+        for (long id = 1; id <= studies; id++) {
+            index.add(StudyDocument.builder()
+                    .studyId(id)
+                    .title(words(random, 3) + " 스터디")
+                    .shortDescription(words(random, 8))
+                    .fullDescription("<p>" + words(random, 40) + "</p>")
+                    .tag(TAGS[random.nextInt(TAGS.length)])
+                    .zone(new StudyDocument.Zone((long) random.nextInt(200), "Seoul", "서울특별시"))
+                    .build());
+        }
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return builder.toString();
+    }
+
+    // 대부분의 스터디에 있는 단어
+    @Benchmark
+    public SearchResult common() {
+        return index.search("스터디", null, null, 0, 9);
+    }
+
+    @Benchmark
+    public SearchResult twoWords() {
+        return index.search("스프링 입문", null, null, 0, 9);
+    }
+
+    @Benchmark
+    public SearchResult withTagFilter() {
+        return index.search("쿠버네티스", "docker", null, 0, 9);
+    }
+
+    @Benchmark
+    public SearchResult deepPage() {
+        return index.search("알고리즘", null, null, 50, 9);
+    }
+
+}
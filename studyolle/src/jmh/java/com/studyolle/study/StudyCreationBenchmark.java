@@ -0,0 +1,112 @@
+package com.studyolle.study;
+
+import com.studyolle.BenchmarkApplication;
+import com.studyolle.account.AccountRepository;
+import com.studyolle.account.UserAccount;
+import com.studyolle.domain.Account;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/*
+ * 스터디를 개설하고(POST /new-study) 리다이렉트된 스터디 화면(GET /study/{path})을 보여주기까지 걸리는 시간
+ * - 호출할 때마다 새 경로로 스터디를 만든다.
+ * - 두 요청이 실행한 SQL 문장 수(X-SQL-Statements)의 합을 보조 지표(createThenView:statements)로 함께 보고한다.
+ *   개설하고 보여주기 한 번에 실행한 SQL 문장 수는 statements / operations 이다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudyCreationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private UsernamePasswordAuthenticationToken authentication;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("--app.sql.response-headers=true");
+        // 스프링 시큐리티 필터가 실행하는 SQL도 세도록 SqlStatisticsFilter를 먼저 등록한다.
+        FilterRegistrationBean<?> sqlStatisticsFilter = context.getBean("sqlStatisticsFilter", FilterRegistrationBean.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .addFilters(sqlStatisticsFilter.getFilter())
+                .apply(springSecurity())
+                .build();
+
+        Account account = new Account();
+        account.setNickname("kevin");
+        account.setEmail("kevin@email.com");
+        account.setPassword("{noop}12345678");
+        account = context.getBean(AccountRepository.class).save(account);
+
+        UserAccount principal = new UserAccount(account);
+        authentication = new UsernamePasswordAuthenticationToken(principal, principal.getPassword(), principal.getAuthorities());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createThenView(SqlStatements sql) throws Exception {
+        MockHttpServletResponse created = mockMvc.perform(post("/new-study")
+                .param("path", "study-" + sequence++)
+                .param("title", "스프링 부트 스터디")
+                .param("shortDescription", "스프링 부트를 함께 공부합니다.")
+                .param("fullDescription", "<p>매주 토요일 오전에 모여서 스프링 부트 레퍼런스를 한 장씩 읽습니다.</p>")
+                .with(csrf())
+                .with(authentication(authentication)))
+                .andReturn().getResponse();
+
+        MockHttpServletResponse view = mockMvc.perform(get(created.getRedirectedUrl())
+                .with(authentication(authentication)))
+                .andReturn().getResponse();
+        if (view.getStatus() != 200) {
+            throw new IllegalStateException("unexpected status " + view.getStatus());
+        }
+
+        sql.operations++;
+        sql.statements += statements(created) + statements(view);
+        return view.getContentLength();
+    }
+
+    private static long statements(MockHttpServletResponse response) {
+        String header = response.getHeader("X-SQL-Statements");
+        return header == null ? 0 : Long.parseLong(header);
+    }
+
+    // 측정 구간(iteration)마다 JMH가 보조 지표로 보고하는 합계
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SqlStatements {
+
+        public long operations;
+        public long statements;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            operations = 0;
+            statements = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.studyolle.study;
+
+import com.studyolle.BenchmarkApplication;
+import com.studyolle.account.AccountRepository;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 회원이 많은 스터디에서 현재 사용자가 가입할 수 있는지 확인하는 비용 비교
+ * - legacy : Study.withAll로 관리자와 회원 컬렉션을 모두 읽고 Study.isJoinable()처럼 contains로 확인
+ * - current : StudyService.getMembership (EXISTS 쿼리로 관리자, 회원 여부만 조회)
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudyMembershipBenchmark {
+
+    @Param({"100", "10000"})
+    private int members;
+
+    private ConfigurableApplicationContext context;
+    private StudyRepository studyRepository;
+    private StudyService studyService;
+    private TransactionTemplate readOnlyTransaction;
+    private List<Account> accounts;
+    private StudySummary summary;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        studyRepository = context.getBean(StudyRepository.class);
+        studyService = context.getBean(StudyService.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        // 회원 외에 가입하지 않은 계정도 같은 수만큼 만든다.
+        accounts = new ArrayList<>();
+        for (int i = 0; i < members * 2; i++) {
+            accounts.add(Account.builder()
+                    .nickname("user" + i)
+                    .email("user" + i + "@email.com")
+                    .password("{noop}12345678")
+                    .build());
+        }
+        accounts = context.getBean(AccountRepository.class).saveAll(accounts);
+
+        Study study = new Study();
+        study.setPath("spring-boot");
+        study.setTitle("스프링 부트 스터디");
+        study.setShortDescription("스프링 부트를 함께 공부합니다.");
+        study.setFullDescription("<p>스프링 부트를 함께 공부합니다.</p>");
+        study.setPublished(true);
+        study.setRecruiting(true);
+        study.addManager(accounts.get(0));
+        accounts.subList(1, members).forEach(study::addMemeber);
+        studyRepository.save(study);
+
+        summary = studyService.getStudySummary("spring-boot");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private Account randomAccount() {
+        return accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        Account account = randomAccount();
+        return readOnlyTransaction.execute(status -> {
+            Study study = studyRepository.findByPath("spring-boot");
+            return study.isPublished() && study.isRecruiting()
+                    && !study.getMembers().contains(account) && !study.getManagers().contains(account);
+        });
+    }
+
+    @Benchmark
+    public boolean current() {
+        return studyService.getMembership(summary, randomAccount()).isJoinable();
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.studyolle.study;
+
+import com.studyolle.BenchmarkApplication;
+import com.studyolle.account.UserAccount;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.WebContext;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Thymeleaf 렌더링
+ * - mail/simple-link : 가입 인증, 로그인 링크 메일 본문
+ * - study/view : 로그인한 사용자가 보는 스터디 화면 (레이아웃, 네비게이션, 스프링 시큐리티 다이얼렉트 포함)
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudyViewRenderBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TemplateEngine templateEngine;
+    private Context mailContext;
+    private WebContext studyContext;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        templateEngine = context.getBean(TemplateEngine.class);
+
+        mailContext = new Context();
+        mailContext.setVariable("nickname", "kevin");
+        mailContext.setVariable("link", "/check-email-token?token=0a1b2c3d&email=kevin@email.com");
+        mailContext.setVariable("linkName", "이메일 인증하기");
+        mailContext.setVariable("message", "스터디올래 서비스를 사용하려면 링크를 클릭하세요.");
+        mailContext.setVariable("host", "http://localhost:8080");
+
+        Account account = Account.builder()
+                .id(1L)
+                .nickname("kevin")
+                .email("kevin@email.com")
+                .password("{noop}12345678")
+                .build();
+        // JMH의 측정 스레드에서도 보이도록 인증 정보를 전역으로 둔다.
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        UserAccount principal = new UserAccount(account);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, principal.getPassword(), principal.getAuthorities()));
+
+        Study study = new Study();
+        study.setId(1L);
+        study.setPath("spring-boot");
+        study.setTitle("스프링 부트 스터디");
+        study.setShortDescription("스프링 부트를 함께 공부합니다.");
+        study.setFullDescription("<p>매주 토요일 오전에 모여서 스프링 부트 레퍼런스를 한 장씩 읽습니다.</p>".repeat(20));
+        study.setPublished(true);
+        study.setRecruiting(true);
+
+        MockServletContext servletContext = new MockServletContext();
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/study/spring-boot");
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+        studyContext = new WebContext(request, new MockHttpServletResponse(), servletContext, Locale.KOREAN);
+        studyContext.setVariable("account", account);
+        studyContext.setVariable("study", StudySummary.of(study, 120));
+        studyContext.setVariable("membership", new StudyMembership(false, false, true));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public String simpleLinkMail() {
+        return templateEngine.process("mail/simple-link", mailContext);
+    }
+
+    @Benchmark
+    public String studyView() {
+        return templateEngine.process("study/view", studyContext);
+    }
+
+}
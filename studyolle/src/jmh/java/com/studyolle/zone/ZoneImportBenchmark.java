@@ -0,0 +1,86 @@
+package com.studyolle.zone;
+
+import com.studyolle.BenchmarkApplication;
+import com.studyolle.domain.Zone;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ * rows개의 지역이 있는 파일을 빈 zone 테이블에 반영하는 시간 비교
+ * - legacy : 이전의 ZoneService.initZoneData (모든 줄을 읽고 saveAll, 엔티티마다 INSERT)
+ * - current : ZoneImporter (한 줄씩 읽고 JDBC 배치 INSERT)
+ * 초당 행 수 = rows / (ms/op) * 1000
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZoneImportBenchmark {
+
+    @Param({"85", "10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ZoneRepository zoneRepository;
+    private ZoneImporter zoneImporter;
+    private TransactionTemplate transactionTemplate;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start();
+        zoneRepository = context.getBean(ZoneRepository.class);
+        zoneImporter = context.getBean(ZoneImporter.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        file = Files.createTempFile("zones", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < rows; i++) {
+                writer.write("City" + i + ",도시" + i + ",Province" + (i % 17));
+                writer.newLine();
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearZones() {
+        zoneRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int legacy() throws IOException {
+        List<Zone> zoneList = Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                .map(line -> {
+                    String[] split = line.split(",");
+                    return Zone.builder().city(split[0]).localNameOfCity(split[1]).province(split[2]).build();
+                }).collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> zoneRepository.saveAll(zoneList));
+        return zoneList.size();
+    }
+
+    @Benchmark
+    public int current() throws IOException {
+        return zoneImporter.importZones(new FileSystemResource(file)).getInserted();
+    }
+
+}
@@ -21,6 +21,7 @@ public class AccountController {
     private final SignUpFormValidator signUpFormValidator;
     private final AccountService accountService;
     private final AccountRepository accountRepository;
+    private final AccountMetrics accountMetrics;
 
     @InitBinder("signUpForm")
     public void initBinder(WebDataBinder webDataBinder) {
@@ -49,16 +50,19 @@ public class AccountController {
         Account account = accountRepository.findByEmail(email);
         String view = "account/checked-email";
         if (account == null) {
+            accountMetrics.emailVerification("wrong-email");
             model.addAttribute("error", "wrong.email");
             return view;
         }
 
         if (!account.isValidToken(token)) {
+            accountMetrics.emailVerification("wrong-token");
             model.addAttribute("error", "wrong.token");
             return view;
         }
 
         accountService.completeSignUp(account);
+        accountMetrics.emailVerification("success");
         model.addAttribute("numberOfUser", accountRepository.count());
         model.addAttribute("nickname", account.getNickname());
         return view;
@@ -122,11 +126,13 @@ public class AccountController {
         Account account = accountRepository.findByEmail(email);
         String view = "account/logged-in-by-email";
         if (account == null || !account.isValidToken(token)) {
+            accountMetrics.login(AccountMetrics.EMAIL, false);
             model.addAttribute("error", "로그인할 수 없습니다.");
             return view;
         }
 
         accountService.login(account);
+        accountMetrics.login(AccountMetrics.EMAIL, true);
         return view;
     }
 
@@ -0,0 +1,13 @@
+package com.studyolle.account;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 계정의 관심 태그나 지역이 바뀌었을 때 발생하는 이벤트
+@Getter
+@RequiredArgsConstructor
+public class AccountInterestsChangedEvent {
+
+    private final Long accountId;
+
+}
@@ -0,0 +1,30 @@
+package com.studyolle.account;
+
+import com.studyolle.config.MappingConfig;
+import com.studyolle.domain.Account;
+import com.studyolle.settings.form.NicknameForm;
+import com.studyolle.settings.form.Notifications;
+import com.studyolle.settings.form.Profile;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingTarget;
+
+/*
+ * 회원 가입, 계정 설정 폼과 Account 사이의 매핑
+ * 폼의 값이 null이어도 그대로 복사한다. (프로필의 빈 항목은 지워진다)
+ * */
+@Mapper(config = MappingConfig.class)
+public interface AccountMapper {
+
+    Account toAccount(SignUpForm signUpForm);
+
+    void updateAccount(Profile profile, @MappingTarget Account account);
+
+    void updateAccount(Notifications notifications, @MappingTarget Account account);
+
+    Profile toProfile(Account account);
+
+    Notifications toNotifications(Account account);
+
+    NicknameForm toNicknameForm(Account account);
+
+}
@@ -0,0 +1,61 @@
+package com.studyolle.account;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.RememberMeAuthenticationToken;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/*
+ * 회원 가입, 이메일 인증, 로그인, 관심 주제(태그, 지역) 변경 횟수를 기록한다.
+ * 요청 처리 시간은 http.server.requests(uri 태그)로 기록되므로 여기서는 결과 별 횟수만 센다.
+ * 폼 로그인과 자동 로그인은 스프링 시큐리티 필터가 처리하므로 인증 이벤트로 센다.
+ * */
+@Component
+public class AccountMetrics {
+
+    static final String FORM = "form";
+    static final String REMEMBER_ME = "remember-me";
+    static final String EMAIL = "email";
+
+    private final MeterRegistry meterRegistry;
+
+    public AccountMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener
+    public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        login(method(event.getAuthentication()), true);
+    }
+
+    @EventListener
+    public void onAuthenticationFailure(AbstractAuthenticationFailureEvent event) {
+        login(method(event.getAuthentication()), false);
+    }
+
+    public void signUp() {
+        meterRegistry.counter("account.signup").increment();
+    }
+
+    // result: success, wrong-email, wrong-token
+    public void emailVerification(String result) {
+        meterRegistry.counter("account.email.verification", "result", result).increment();
+    }
+
+    public void login(String method, boolean success) {
+        meterRegistry.counter("account.login", "method", method, "result", success ? "success" : "failure").increment();
+    }
+
+    // type: tag, zone / action: add, remove
+    public void interestChanged(String type, String action) {
+        meterRegistry.counter("account.interest.change", "type", type, "action", action).increment();
+    }
+
+    private static String method(Authentication authentication) {
+        return authentication instanceof RememberMeAuthenticationToken ? REMEMBER_ME : FORM;
+    }
+
+}
@@ -1,9 +1,15 @@
 package com.studyolle.account;
 
 import com.studyolle.domain.Account;
+import com.studyolle.domain.Zone;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Transactional(readOnly = true)
 public interface AccountRepository extends JpaRepository<Account, Long> {
     boolean existsByEmail(String email);
@@ -13,4 +19,32 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     Account findByEmail(String email);
 
     Account findByNickname(String nickname);
+
+    // 로그인할 때 사용한다. 엔티티 대신 Principal에 필요한 값만 가져온다.
+    @Query("select new com.studyolle.account.UserAccount(a.id, a.nickname, a.email, a.password, a.emailVerified, a.profileImage) " +
+            "from Account a where a.email = :email")
+    UserAccount findUserAccountByEmail(@Param("email") String email);
+
+    @Query("select new com.studyolle.account.UserAccount(a.id, a.nickname, a.email, a.password, a.emailVerified, a.profileImage) " +
+            "from Account a where a.nickname = :nickname")
+    UserAccount findUserAccountByNickname(@Param("nickname") String nickname);
+
+    // 로그인할 때 더 높은 작업 비용으로 다시 해싱한 패스워드를 저장한다.
+    @Transactional
+    @Modifying
+    @Query("update Account a set a.password = :password where a.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Query("select t.id from Account a join a.tags t where a.id = :accountId")
+    List<Long> findTagIds(@Param("accountId") Long accountId);
+
+    @Query("select z.id from Account a join a.zones z where a.id = :accountId")
+    List<Long> findZoneIds(@Param("accountId") Long accountId);
+
+    @Query("select t.title from Account a join a.tags t where a.id = :accountId")
+    List<String> findTagTitles(@Param("accountId") Long accountId);
+
+    @Query("select z from Account a join a.zones z where a.id = :accountId")
+    List<Zone> findZones(@Param("accountId") Long accountId);
+
 }
@@ -2,49 +2,80 @@ package com.studyolle.account;
 
 import com.studyolle.config.AppProperties;
 import com.studyolle.domain.Account;
-import com.studyolle.domain.Tag;
 import com.studyolle.domain.Zone;
+import com.studyolle.image.ImageService;
 import com.studyolle.mail.EmailMessage;
-import com.studyolle.mail.EmailService;
+import com.studyolle.mail.EmailOutboxService;
+import com.studyolle.settings.form.InterestsForm;
 import com.studyolle.settings.form.Notifications;
 import com.studyolle.settings.form.Profile;
+import com.studyolle.settings.form.ZoneForm;
+import com.studyolle.tag.TagService;
+import com.studyolle.zone.ZoneRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
-public class AccountService implements UserDetailsService {
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final String TAG = "tag";
+    private static final String ZONE = "zone";
+
+    private static final String INSERT_ACCOUNT_TAG_SQL =
+            "insert into account_tags (account_id, tags_id) select ?, ? " +
+            "where not exists (select 1 from account_tags where account_id = ? and tags_id = ?)";
+
+    private static final String DELETE_ACCOUNT_TAG_SQL =
+            "delete from account_tags where account_id = ? and tags_id = ?";
+
+    private static final String INSERT_ACCOUNT_ZONE_SQL =
+            "insert into account_zones (account_id, zones_id) select ?, ? " +
+            "where not exists (select 1 from account_zones where account_id = ? and zones_id = ?)";
+
+    private static final String DELETE_ACCOUNT_ZONE_SQL =
+            "delete from account_zones where account_id = ? and zones_id = ?";
 
     private final AccountRepository accountRepository;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
     private final PasswordEncoder passwordEncoder;
-    private final ModelMapper modelMapper;
+    private final AccountMapper accountMapper;
     private final TemplateEngine templateEngine;
     private final AppProperties appProperties;
+    private final ImageService imageService;
+    private final UnknownUsernameCache unknownUsernameCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccountMetrics accountMetrics;
+    private final JdbcTemplate jdbcTemplate;
+    private final TagService tagService;
+    private final ZoneRepository zoneRepository;
 
     public Account processNewAccount(SignUpForm signUpForm) {
         // 새로운 회원을 생성해서 저장한다.
         Account newAccount = saveNewAccount(signUpForm);
         // 가입 확인 이메일을 전송한다.
         sendSignUpConfirmEmail(newAccount);
+        accountMetrics.signUp();
 
         return newAccount;
     }
@@ -52,11 +83,30 @@ public class AccountService implements UserDetailsService {
     private Account saveNewAccount(SignUpForm signUpForm) {
         // 회원 생성
         signUpForm.setPassword(passwordEncoder.encode(signUpForm.getPassword())); // SignUpForm의 패스워드를 인코딩한다.
-        Account account = modelMapper.map(signUpForm, Account.class);
+        Account account = accountMapper.toAccount(signUpForm);
         account.generateEmailCheckToken(); // 이메일 인증 토큰을 생성한다.
 
         // 회원 저장
-        return accountRepository.save(account);
+        Account newAccount = accountRepository.save(account);
+        evictUnknownUsernamesAfterCommit(newAccount.getEmail(), newAccount.getNickname());
+        return newAccount;
+    }
+
+    /*
+     * 커밋하기 전에 지우면, 그 사이에 같은 이름으로 로그인을 시도한 요청이 (아직 보이지 않는 계정을 찾지 못하고)
+     * 다시 기억하므로 가입한 사용자가 TTL 동안 로그인하지 못한다. 그래서 커밋한 다음에 지운다.
+     * */
+    private void evictUnknownUsernamesAfterCommit(String... usernames) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            unknownUsernameCache.evict(usernames);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                unknownUsernameCache.evict(usernames);
+            }
+        });
     }
 
     public void sendSignUpConfirmEmail(Account newAccount) {
@@ -75,7 +125,7 @@ public class AccountService implements UserDetailsService {
                 .message(message)
                 .build();
 
-        emailService.sendEmail(emailMessage);
+        emailOutboxService.enqueue(emailMessage); // 메일은 트랜잭션이 커밋된 다음에 발송된다.
     }
 
     public void login(Account account) {
@@ -91,26 +141,33 @@ public class AccountService implements UserDetailsService {
     @Transactional(readOnly = true)
     @Override
     public UserDetails loadUserByUsername(String emailOrNickname) throws UsernameNotFoundException {
-        // 처음에는 이메일을 입력할 것이라 가정한다.
-        Account account = accountRepository.findByEmail(emailOrNickname);
-
-        // 이메일로 유저를 찾았을 때, null이면
-        if(account == null){
-            // 닉네임으로 유저를 한번 더 찾아본다.
-            account = accountRepository.findByNickname(emailOrNickname);
+        // 최근에 없는 것으로 확인한 이름이라면 DB를 조회하지 않는다.
+        if (unknownUsernameCache.contains(emailOrNickname)) {
+            throw new UsernameNotFoundException(emailOrNickname);
         }
 
-        // 그래도 account가 null이면 UsernameNotFoundException 예외를 발생 시킨다.
-        if(account == null){
+        /*
+         * 닉네임에는 @를 쓸 수 없으므로 @가 있으면 이메일, 없으면 닉네임이다.
+         * email = ? or nickname = ? 으로 조회하면 DB에 따라 인덱스를 사용하지 못하므로
+         * 입력 값을 보고 하나의 유니크 인덱스만 조회한다.
+         * */
+        UserAccount userAccount = emailOrNickname.indexOf('@') >= 0
+                ? accountRepository.findUserAccountByEmail(emailOrNickname)
+                : accountRepository.findUserAccountByNickname(emailOrNickname);
+
+        // account가 없으면 UsernameNotFoundException 예외를 발생 시킨다.
+        if (userAccount == null) {
+            unknownUsernameCache.add(emailOrNickname);
             throw new UsernameNotFoundException(emailOrNickname);
         }
 
-        // 위의 과정을 통과 했다면 유저가 있다는 것이므로 Principal에 해당하는 객체(UserAccount)를 반환하면 된다.
-        return new UserAccount(account);
+        return userAccount;
     }
 
     public void completeSignUp(Account account) {
+        // 컨트롤러가 트랜잭션 밖에서 조회한 (준영속) 계정이므로 변경 감지에 맡기지 않고 저장한다. (open-in-view=false)
         account.completeSignUp();
+        accountRepository.save(account);
 
         /*
          * 이때는 데이터베이스에서 읽어온 Account 안에는 평문으로 된 패스워드가 존재하지 않는다.
@@ -120,8 +177,13 @@ public class AccountService implements UserDetailsService {
     }
 
     public void updateProfile(Account account, Profile profile) {
-        modelMapper.map(profile, account); // profile에 있는 데이터를 account로 복사한다.
+        // 프로필 이미지는 data URL 그대로 저장하지 않고 이미지 저장소에 넣은 다음, 참조만 남긴다.
+        // 잘못된 이미지라면 IllegalArgumentException이 발생하므로 account를 바꾸기 전에 저장한다.
+        String profileImage = imageService.toReference(profile.getProfileImage());
+        accountMapper.updateAccount(profile, account); // profile에 있는 데이터를 account로 복사한다.
+        account.setProfileImage(profileImage);
         accountRepository.save(account);
+        login(account); // 세션에 있는 Principal의 프로필 이미지 참조를 갱신한다.
     }
 
     public void updatePassword(Account account, String newPassword) {
@@ -129,14 +191,27 @@ public class AccountService implements UserDetailsService {
         accountRepository.save(account);
     }
 
+    /*
+     * 로그인에 성공했는데 저장된 해시의 작업 비용이 현재보다 낮다면 (PasswordEncoder.upgradeEncoding)
+     * 스프링 시큐리티가 입력한 패스워드를 다시 해싱해서 호출한다.
+     * */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserAccount userAccount = (UserAccount) user;
+        accountRepository.updatePassword(userAccount.getId(), newPassword);
+        return new UserAccount(userAccount.getId(), userAccount.getNickname(), userAccount.getEmail(), newPassword,
+                userAccount.isEmailVerified(), userAccount.getProfileImage());
+    }
+
     public void updateNotifications(Account account, Notifications notifications) {
-        modelMapper.map(notifications, account);
+        accountMapper.updateAccount(notifications, account);
         accountRepository.save(account);
     }
 
     public void updateNickname(Account account, String nickname) {
         account.setNickname(nickname);
         accountRepository.save(account);
+        evictUnknownUsernamesAfterCommit(nickname);
         login(account);
     }
 
@@ -155,36 +230,105 @@ public class AccountService implements UserDetailsService {
                 .subject("스터디올래, 로그인 링크")
                 .message(message)
                 .build();
-        emailService.sendEmail(emailMessage);
+        emailOutboxService.enqueue(emailMessage); // 메일은 트랜잭션이 커밋된 다음에 발송된다.
+    }
+
+    /*
+     * 관심 태그, 지역은 계정과 태그(지역)를 조회하지 않고 조인 테이블에 한 행을 INSERT, DELETE 한다.
+     * 컬렉션을 읽지 않고, ManyToMany Set을 바꿀 때처럼 행을 모두 지웠다가 다시 INSERT 하지도 않는다.
+     * 이미 추가한 것을 추가하거나 없는 것을 지우면 아무것도 하지 않는다.
+     * 영속성 컨텍스트를 거치지 않으므로, 같은 트랜잭션에서 이미 읽은 Account의 tags, zones 컬렉션에는 반영되지 않는다.
+     * */
+    public void addTag(Long accountId, Long tagId) {
+        if (addInterest(TAG, INSERT_ACCOUNT_TAG_SQL, accountId, tagId)) {
+            eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
+        }
+    }
+
+    // 화면에 표시할 관심 태그의 이름만 조회한다. (open-in-view를 사용하지 않으므로 컬렉션을 지연 로딩하지 않는다)
+    @Transactional(readOnly = true)
+    public List<String> getTagTitles(Account account) {
+        return accountRepository.findTagTitles(account.getId());
+    }
+
+    public void removeTag(Long accountId, Long tagId) {
+        if (removeInterest(TAG, DELETE_ACCOUNT_TAG_SQL, accountId, tagId)) {
+            eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<Zone> getZones(Account account) {
+        return accountRepository.findZones(account.getId());
     }
 
-    public void addTag(Account account, Tag tag) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getTags().add(tag));
+    public void addZone(Long accountId, Long zoneId) {
+        if (addInterest(ZONE, INSERT_ACCOUNT_ZONE_SQL, accountId, zoneId)) {
+            eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
+        }
     }
 
-    public Set<Tag> getTags(Account account) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        return byId.orElseThrow().getTags(); // 없으면 에러를 던지고 있다면 태그 정보를 리턴한다.
+    public void removeZone(Long accountId, Long zoneId) {
+        if (removeInterest(ZONE, DELETE_ACCOUNT_ZONE_SQL, accountId, zoneId)) {
+            eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
+        }
     }
 
-    public void removeTag(Account account, Tag tag) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getTags().remove(tag));
+    /*
+     * 관심 태그, 지역 화면에서 모아서 보낸 변경을 받은 순서대로 한 트랜잭션에서 반영한다.
+     * 없는 지역이 있으면 IllegalArgumentException을 던지고, 트랜잭션을 롤백해서 아무것도 반영하지 않는다.
+     * 추천 색인은 변경이 있을 때 한 번만 다시 계산한다. (AccountInterestsChangedEvent)
+     * */
+    public void updateInterests(Long accountId, InterestsForm interestsForm) {
+        boolean changed = false;
+        for (InterestsForm.Change change : interestsForm.getChanges()) {
+            boolean add = change.getAction() == InterestsForm.Action.ADD;
+            if (change.getType() == InterestsForm.Type.TAG) {
+                Long tagId = add ? tagService.getOrCreateTagId(change.getValue()) : tagService.findTagId(change.getValue());
+                if (tagId == null) {
+                    continue; // 없는 태그는 지울 것이 없다.
+                }
+                changed |= add ? addInterest(TAG, INSERT_ACCOUNT_TAG_SQL, accountId, tagId)
+                        : removeInterest(TAG, DELETE_ACCOUNT_TAG_SQL, accountId, tagId);
+            } else {
+                Long zoneId = findZoneId(change.getValue());
+                changed |= add ? addInterest(ZONE, INSERT_ACCOUNT_ZONE_SQL, accountId, zoneId)
+                        : removeInterest(ZONE, DELETE_ACCOUNT_ZONE_SQL, accountId, zoneId);
+            }
+        }
+
+        if (changed) {
+            eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
+        }
     }
 
-    public Set<Zone> getZones(Account account) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        return byId.orElseThrow().getZones();
+    private Long findZoneId(String zoneName) {
+        if (!ZoneForm.isZoneName(zoneName)) {
+            throw new IllegalArgumentException("invalid zone: " + zoneName);
+        }
+        ZoneForm zoneForm = new ZoneForm();
+        zoneForm.setZoneName(zoneName);
+        Zone zone = zoneRepository.findByCityAndProvince(zoneForm.getCityName(), zoneForm.getProvinceName());
+        if (zone == null) {
+            throw new IllegalArgumentException("unknown zone: " + zoneName);
+        }
+        return zone.getId();
     }
 
-    public void addZone(Account account, Zone zone) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getZones().add(zone));
+    private boolean addInterest(String type, String insertSql, Long accountId, Long targetId) {
+        boolean added = jdbcTemplate.update(insertSql, accountId, targetId, accountId, targetId) > 0;
+        if (added) {
+            accountMetrics.interestChanged(type, "add");
+        }
+        return added;
     }
 
-    public void removeZone(Account account, Zone zone) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getZones().remove(zone));
+    private boolean removeInterest(String type, String deleteSql, Long accountId, Long targetId) {
+        boolean removed = jdbcTemplate.update(deleteSql, accountId, targetId) > 0;
+        if (removed) {
+            accountMetrics.interestChanged(type, "remove");
+        }
+        return removed;
     }
+
 }
@@ -0,0 +1,190 @@
+package com.studyolle.account;
+
+import com.studyolle.config.AppProperties;
+import com.studyolle.domain.PersistentLogins;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * persistent_logins 테이블을 사용하는 remember-me 토큰 저장소
+ * JdbcTokenRepositoryImpl은 자동 로그인할 때마다 select와 update를 한 번씩 실행한다.
+ * - 조회한 토큰은 크기가 정해진 LRU 캐시에 보관해서, 같은 series로 다시 자동 로그인할 때 DB를 조회하지 않는다.
+ * - 자동 로그인할 때 바뀌는 토큰 값과 last_used는 메모리에 모아 두었다가 주기적으로 한 번의 batch update로 쓴다.
+ * - 새로운 토큰 생성과 토큰 삭제(로그아웃, 토큰 도용)는 바로 DB에 반영한다.
+ *
+ * 캐시는 서버마다 따로 가지므로 서버가 하나일 때를 가정한다.
+ * 서버가 비정상 종료되어 쓰지 못한 토큰이 있다면, 그 사용자는 다음 자동 로그인에 실패하고 다시 로그인해야 한다.
+ * */
+@Slf4j
+@Component
+public class CachingPersistentTokenRepository implements PersistentTokenRepository {
+
+    private static final String UPDATE_TOKEN_SQL = "update persistent_logins set token = ?, last_used = ? where series = ?";
+
+    private final PersistentLoginsRepository persistentLoginsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AppProperties.RememberMe rememberMe;
+
+    // series → token, 접근 순서로 정렬해서 가장 오래 사용하지 않은 토큰부터 버린다.
+    private final Map<String, PersistentRememberMeToken> cache;
+
+    // 아직 DB에 쓰지 않은 토큰 (series → token)
+    private Map<String, PersistentRememberMeToken> dirty = new HashMap<>();
+
+    public CachingPersistentTokenRepository(PersistentLoginsRepository persistentLoginsRepository,
+                                            JdbcTemplate jdbcTemplate, AppProperties appProperties) {
+        this.persistentLoginsRepository = persistentLoginsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rememberMe = appProperties.getRememberMe();
+
+        int cacheSize = rememberMe.getCacheSize();
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PersistentRememberMeToken> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    @Transactional
+    public void createNewToken(PersistentRememberMeToken token) {
+        PersistentLogins persistentLogins = new PersistentLogins();
+        persistentLogins.setSeries(token.getSeries());
+        persistentLogins.setUsername(token.getUsername());
+        persistentLogins.setToken(token.getTokenValue());
+        persistentLogins.setLastUsed(toLocalDateTime(token.getDate()));
+        persistentLoginsRepository.save(persistentLogins);
+
+        synchronized (this) {
+            cache.put(token.getSeries(), token);
+        }
+    }
+
+    @Override
+    public void updateToken(String series, String tokenValue, Date lastUsed) {
+        synchronized (this) {
+            PersistentRememberMeToken cached = cache.get(series);
+            if (cached == null) {
+                cached = dirty.get(series);
+            }
+            if (cached == null) {
+                // 캐시에서 밀려난 토큰이다. 사용자 이름을 모르므로 바로 DB에 쓴다.
+                jdbcTemplate.update(UPDATE_TOKEN_SQL, tokenValue, new Timestamp(lastUsed.getTime()), series);
+                return;
+            }
+
+            PersistentRememberMeToken updated = new PersistentRememberMeToken(cached.getUsername(), series, tokenValue, lastUsed);
+            cache.put(series, updated);
+            dirty.put(series, updated);
+        }
+    }
+
+    @Override
+    public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+        synchronized (this) {
+            PersistentRememberMeToken cached = cache.get(seriesId);
+            if (cached == null) {
+                cached = dirty.get(seriesId);
+            }
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        PersistentRememberMeToken token = persistentLoginsRepository.findById(seriesId)
+                .map(persistentLogins -> new PersistentRememberMeToken(persistentLogins.getUsername(),
+                        persistentLogins.getSeries(), persistentLogins.getToken(),
+                        Timestamp.valueOf(persistentLogins.getLastUsed())))
+                .orElse(null);
+
+        if (token != null) {
+            synchronized (this) {
+                // DB를 조회하는 동안 다른 요청이 토큰을 바꿨다면 그 값을 사용한다.
+                PersistentRememberMeToken current = dirty.get(seriesId);
+                if (current != null) {
+                    return current;
+                }
+                cache.putIfAbsent(seriesId, token);
+            }
+        }
+        return token;
+    }
+
+    @Override
+    @Transactional
+    public void removeUserTokens(String username) {
+        synchronized (this) {
+            cache.values().removeIf(token -> token.getUsername().equals(username));
+            dirty.values().removeIf(token -> token.getUsername().equals(username));
+        }
+        persistentLoginsRepository.deleteByUsername(username);
+    }
+
+    // 모아 둔 토큰 변경 사항을 한 번에 DB에 쓴다.
+    @Scheduled(fixedDelayString = "#{@appProperties.rememberMe.flushInterval.toMillis()}")
+    public void flush() {
+        Map<String, PersistentRememberMeToken> pending;
+        synchronized (this) {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            pending = dirty;
+            dirty = new HashMap<>();
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(pending.size());
+        pending.values().forEach(token -> batchArgs.add(new Object[]{
+                token.getTokenValue(), new Timestamp(token.getDate().getTime()), token.getSeries()}));
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_TOKEN_SQL, batchArgs);
+        } catch (RuntimeException e) {
+            log.error("failed to flush {} remember-me tokens", pending.size(), e);
+            synchronized (this) {
+                // 그 사이에 다시 바뀐 토큰은 새로운 값을 유지한다.
+                pending.forEach(dirty::putIfAbsent);
+            }
+        }
+    }
+
+    // 유효 기간이 지난 토큰을 지운다.
+    @Scheduled(cron = "${app.remember-me.purge-cron:0 0 4 * * *}")
+    public void purgeExpiredTokens() {
+        flush();
+
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(rememberMe.getTokenValidity());
+        int purged = persistentLoginsRepository.deleteExpired(expiredBefore);
+
+        Date expiredBeforeDate = Timestamp.valueOf(expiredBefore);
+        synchronized (this) {
+            cache.values().removeIf(token -> token.getDate().before(expiredBeforeDate));
+        }
+        log.info("purged {} expired remember-me tokens", purged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return new Timestamp(date.getTime()).toLocalDateTime();
+    }
+
+}
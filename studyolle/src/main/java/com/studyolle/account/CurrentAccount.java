@@ -1,15 +1,15 @@
 package com.studyolle.account;
 
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/*
+ * 현재 로그인한 사용자의 Account 엔티티를 주입 받는다. (로그인하지 않았다면 null)
+ * 세션에는 UserAccount만 저장되어 있으므로 CurrentAccountArgumentResolver가 요청마다 한 번 조회한다.
+ * */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.PARAMETER)
-@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : account")
 public @interface CurrentAccount {
 }
-
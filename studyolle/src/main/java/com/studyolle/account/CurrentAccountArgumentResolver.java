@@ -0,0 +1,50 @@
+package com.studyolle.account;
+
+import com.studyolle.domain.Account;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+@RequiredArgsConstructor
+public class CurrentAccountArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String CURRENT_ACCOUNT = CurrentAccountArgumentResolver.class.getName() + ".ACCOUNT";
+
+    private final AccountRepository accountRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentAccount.class)
+                && Account.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserAccount)) {
+            return null; // 익명 사용자
+        }
+
+        // 같은 요청 안에서는 한 번만 조회하도록 요청 애트리뷰트에 담아둔다.
+        Account account = (Account) webRequest.getAttribute(CURRENT_ACCOUNT, RequestAttributes.SCOPE_REQUEST);
+        if (account == null) {
+            UserAccount userAccount = (UserAccount) authentication.getPrincipal();
+            account = accountRepository.findById(userAccount.getId()).orElse(null);
+            if (account != null) {
+                webRequest.setAttribute(CURRENT_ACCOUNT, account, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+
+        return account;
+    }
+
+}
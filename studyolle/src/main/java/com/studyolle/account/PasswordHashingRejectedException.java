@@ -0,0 +1,13 @@
+package com.studyolle.account;
+
+/*
+ * 해싱을 기다리는 요청이 너무 많아서 패스워드 해싱을 거절했다.
+ * PasswordHashingRejectionFilter가 503 Service Unavailable로 응답한다.
+ * */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException() {
+        super("too many password hashing requests");
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.studyolle.account;
+
+import com.studyolle.config.AppProperties;
+import com.studyolle.infra.thread.VirtualThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 패스워드 해싱 (회원 가입, 패스워드 변경, 폼 로그인에서 사용하는 PasswordEncoder)
+ * - BCrypt는 CPU만 사용하므로 요청 스레드가 아니라 CPU 코어 수 만큼의 전용 스레드에서 해싱한다.
+ *   로그인이 몰려도 톰캣 스레드가 모두 해싱에 묶이지 않는다.
+ * - 기다리는 요청이 queueCapacity를 넘으면 기다리지 않고 PasswordHashingRejectedException을 던진다. (503)
+ * - 작업 비용(strength)을 지정하지 않으면 서버가 시작될 때 targetHashTime에 맞는 값을 찾는다.
+ * - 저장된 해시의 작업 비용이 현재보다 낮다면 upgradeEncoding()이 true를 반환하고,
+ *   스프링 시큐리티가 로그인에 성공했을 때 AccountService.updatePassword(UserDetails, String)로 다시 해싱해서 저장한다.
+ * */
+@Slf4j
+@Component
+public class PasswordHashingService implements PasswordEncoder {
+
+    // BCryptPasswordEncoder의 기본 값보다 낮추지 않는다.
+    static final int MIN_STRENGTH = 10;
+
+    static final int MAX_STRENGTH = 16;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public PasswordHashingService(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this(delegatingPasswordEncoder(strengthOf(appProperties.getPassword())), appProperties.getPassword(),
+                VirtualThreads.threadFactory("password-hashing-", appProperties.getThreads().isVirtual()), meterRegistry);
+    }
+
+    PasswordHashingService(PasswordEncoder delegate, AppProperties.Password password, MeterRegistry meterRegistry) {
+        this(delegate, password, new CustomizableThreadFactory("password-hashing-"), meterRegistry);
+    }
+
+    /*
+     * 가상 스레드를 사용해도 해싱은 CPU만 사용하므로 동시에 해싱하는 수는 workers로 제한한다.
+     * 가상 스레드로 처리하는 요청은 해싱을 기다리는 동안 캐리어 스레드를 붙잡지 않는다.
+     * */
+    PasswordHashingService(PasswordEncoder delegate, AppProperties.Password password, ThreadFactory threadFactory,
+                           MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+
+        int workers = password.getWorkers() > 0 ? password.getWorkers() : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, password.getQueueCapacity())), threadFactory);
+
+        this.encodeTimer = Timer.builder("password.hashing")
+                .description("패스워드를 해싱하거나 확인하는 데 걸린 시간 (기다린 시간 제외)")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing")
+                .description("패스워드를 해싱하거나 확인하는 데 걸린 시간 (기다린 시간 제외)")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("기다리는 요청이 많아서 거절한 해싱 수")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queued", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Timer timer, Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(hashing));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static int strengthOf(AppProperties.Password password) {
+        if (password.getStrength() != null) {
+            return password.getStrength();
+        }
+        int strength = calibrate(password.getTargetHashTime(), MIN_STRENGTH, MAX_STRENGTH);
+        log.info("calibrated bcrypt strength to {} for target hash time {}", strength, password.getTargetHashTime());
+        return strength;
+    }
+
+    /*
+     * min 작업 비용으로 해싱하는 시간을 재고, 목표 시간을 넘지 않는 가장 큰 작업 비용을 찾는다.
+     * 작업 비용이 1 늘어날 때마다 해싱 시간은 두 배가 된다.
+     * */
+    static int calibrate(Duration target, int min, int max) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(min);
+        long elapsed = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) { // 처음 몇 번은 JIT 컴파일 전이라 느리므로 가장 빠른 시간을 사용한다.
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            elapsed = Math.min(elapsed, System.nanoTime() - start);
+        }
+
+        int strength = min;
+        while (strength < max && elapsed * 2 <= target.toNanos()) {
+            elapsed *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    // 새로운 패스워드는 {bcrypt}로 저장하고, 테스트 데이터 등의 {noop}도 확인할 수 있게 한다.
+    @SuppressWarnings("deprecation")
+    static PasswordEncoder delegatingPasswordEncoder(int strength) {
+        return new DelegatingPasswordEncoder("bcrypt", Map.of(
+                "bcrypt", new BCryptPasswordEncoder(strength),
+                "noop", NoOpPasswordEncoder.getInstance()));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.studyolle.account;
+
+import com.studyolle.domain.PersistentLogins;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public interface PersistentLoginsRepository extends JpaRepository<PersistentLogins, String> {
+
+    // 자동 로그인할 때 토큰 도용 여부를 확인하므로 복제가 늦을 수 있는 replica가 아닌 primary에서 읽는다.
+    @Override
+    @Transactional
+    Optional<PersistentLogins> findById(String series);
+
+    @Transactional
+    @Modifying
+    @Query("delete from PersistentLogins p where p.username = :username")
+    int deleteByUsername(@Param("username") String username);
+
+    // 유효 기간이 지난 remember-me 토큰을 지운다.
+    @Transactional
+    @Modifying
+    @Query("delete from PersistentLogins p where p.lastUsed < :expiredBefore")
+    int deleteExpired(@Param("expiredBefore") LocalDateTime expiredBefore);
+
+}
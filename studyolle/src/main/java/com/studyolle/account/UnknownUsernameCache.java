@@ -0,0 +1,51 @@
+package com.studyolle.account;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 존재하지 않는 이메일/닉네임으로 로그인을 시도한 기록을 잠깐 동안 기억한다.
+ * 같은 이름으로 반복해서 로그인을 시도하면 DB를 조회하지 않고 바로 실패시킨다.
+ * - 크기가 정해져 있어서 오래된 것부터 버린다.
+ * - 회원 가입이나 닉네임 변경으로 이름이 생기면 커밋한 다음에 지운다. (여러 서버라면 TTL 동안은 실패할 수 있다)
+ * */
+@Component
+public class UnknownUsernameCache {
+
+    static final int MAX_SIZE = 10_000;
+
+    static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final Map<String, Long> expiresAt = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    public synchronized boolean contains(String username) {
+        Long expiry = expiresAt.get(username);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - System.nanoTime() < 0) {
+            expiresAt.remove(username);
+            return false;
+        }
+        return true;
+    }
+
+    public synchronized void add(String username) {
+        expiresAt.put(username, System.nanoTime() + TTL_NANOS);
+    }
+
+    public synchronized void evict(String... usernames) {
+        for (String username : usernames) {
+            expiresAt.remove(username);
+        }
+    }
+
+}
@@ -7,14 +7,38 @@ import org.springframework.security.core.userdetails.User;
 
 import java.util.List;
 
+/*
+ * 세션(SecurityContext)에 저장되는 Principal 객체
+ * Account 엔티티 전체를 들고 있지 않고, 화면에 필요한 최소한의 값만 가지고 있는 불변 객체다.
+ * 엔티티가 필요한 컨트롤러는 @CurrentAccount를 통해 요청마다 조회해서 사용한다.
+ * */
 @Getter
 public class UserAccount extends User { // 스프링 시큐리티가 제공하는 User를 확장한 UserAccount
 
-    private Account account;
+    private final Long id;
+
+    private final String nickname;
+
+    private final String email;
+
+    private final boolean emailVerified;
+
+    // 프로필 이미지의 참조 (/images/{hash})
+    private final String profileImage;
 
     public UserAccount(Account account) {
-        super(account.getNickname(), account.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
-        this.account = account;
+        this(account.getId(), account.getNickname(), account.getEmail(), account.getPassword(),
+                account.isEmailVerified(), account.getProfileImage());
+    }
+
+    public UserAccount(Long id, String nickname, String email, String password,
+                       boolean emailVerified, String profileImage) {
+        super(nickname, password, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        this.id = id;
+        this.nickname = nickname;
+        this.email = email;
+        this.emailVerified = emailVerified;
+        this.profileImage = profileImage;
     }
 
 }
@@ -2,8 +2,11 @@ package com.studyolle.config;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Data
 @Component
 @ConfigurationProperties("app")
@@ -11,4 +14,134 @@ public class AppProperties {
 
     private String host;
 
+    private Mail mail = new Mail();
+
+    private RememberMe rememberMe = new RememberMe();
+
+    private Password password = new Password();
+
+    private Zone zone = new Zone();
+
+    private Tag tag = new Tag();
+
+    private Replica replica = new Replica();
+
+    private Sql sql = new Sql();
+
+    private Threads threads = new Threads();
+
+    @Data
+    public static class Mail {
+
+        // 메일을 보내는 worker 수 (동시에 열 수 있는 SMTP 연결 수)
+        private int workers = 2;
+
+        // 하나의 SMTP 연결로 보내는 메일 수
+        private int batchSize = 20;
+
+        // 최대 발송 시도 횟수
+        private int maxAttempts = 5;
+
+        // 첫 재시도까지 기다리는 시간 (실패할 때마다 두 배씩 늘어난다)
+        private Duration retryBackoff = Duration.ofSeconds(30);
+
+        // worker가 메일을 가져간 뒤 발송 중(SENDING) 상태로 점유할 수 있는 시간
+        private Duration claimTimeout = Duration.ofMinutes(5);
+
+        // 발송했거나(SENT) 발송을 포기한(FAILED) 메일을 아웃박스에 남겨두는 기간
+        private Duration retention = Duration.ofDays(7);
+
+    }
+
+    @Data
+    public static class RememberMe {
+
+        // remember-me 토큰의 유효 기간 (마지막으로 사용한 시점부터)
+        private Duration tokenValidity = Duration.ofDays(14);
+
+        // 메모리에 캐시하는 토큰(series) 수
+        private int cacheSize = 10_000;
+
+        // 자동 로그인할 때 바뀐 토큰을 DB에 모아서 쓰는 간격
+        private Duration flushInterval = Duration.ofSeconds(5);
+
+    }
+
+    @Data
+    public static class Password {
+
+        // BCrypt 작업 비용 (2^strength 번 반복). 지정하지 않으면 서버가 시작될 때 targetHashTime에 맞춰 정한다.
+        private Integer strength;
+
+        // 패스워드 하나를 해싱하는 데 걸리는 목표 시간
+        private Duration targetHashTime = Duration.ofMillis(100);
+
+        // 해싱하는 스레드 수 (0이면 CPU 코어 수)
+        private int workers = 0;
+
+        // 해싱을 기다릴 수 있는 요청 수. 넘치면 기다리지 않고 503으로 응답한다.
+        private int queueCapacity = 32;
+
+    }
+
+    @Data
+    public static class Zone {
+
+        // 서버가 시작될 때 기본 지역 정보(zones_kr.csv)에 더해서 읽어올 지역 파일 (예: file:/data/zones.csv)
+        private Resource importFile;
+
+        // 한 번에 INSERT, UPDATE 하고 커밋하는 행 수
+        private int batchSize = 500;
+
+    }
+
+    @Data
+    public static class Tag {
+
+        // 태그 이름 → id를 메모리에 보관하는 개수
+        private int idCacheSize = 10_000;
+
+    }
+
+    @Data
+    public static class Replica {
+
+        // 읽기 전용 트랜잭션을 보낼 replica의 JDBC URL. 지정하지 않으면 spring.datasource만 사용한다.
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        // replica 커넥션 풀의 최대 크기
+        private int maximumPoolSize = 10;
+
+        // 쓰기 트랜잭션을 실행한 세션이 읽기도 primary에서 하는 시간 (replica의 복제 지연보다 길어야 한다)
+        private Duration stickiness = Duration.ofSeconds(5);
+
+    }
+
+    @Data
+    public static class Sql {
+
+        // 요청 하나에서 같은 SELECT를 이 횟수 이상 실행하면 N+1로 의심하고 경고 로그를 남긴다.
+        private int repeatedQueryThreshold = 5;
+
+        // 요청이 실행한 SQL 문장 수, 행 수, 실행 시간을 X-SQL-* 응답 헤더로 보낸다. (개발할 때만 켠다)
+        private boolean responseHeaders = false;
+
+    }
+
+    @Data
+    public static class Threads {
+
+        // 요청(톰캣), 메일 발송, 패스워드 해싱을 가상 스레드에서 실행한다. (JDK 21 이상, 지원하지 않으면 플랫폼 스레드를 사용한다)
+        private boolean virtual = false;
+
+        // 가상 스레드를 사용할 때 primary DB 커넥션을 동시에 사용할 수 있는 스레드 수 (0이면 커넥션 풀 크기)
+        // replica 커넥션은 replica 풀 크기(app.replica.maximum-pool-size) 만큼 따로 제한한다.
+        private int maxConnections = 0;
+
+    }
+
 }
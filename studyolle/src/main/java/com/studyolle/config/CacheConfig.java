@@ -0,0 +1,69 @@
+package com.studyolle.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/*
+ * 하이버네이트 2차 캐시(태그, 지역)와 스프링 캐시(스터디 요약)는 같은 JCache(Caffeine) CacheManager를 사용한다.
+ * 캐시마다 크기 제한은 application.conf에 있고, 설정에 없는 캐시는 만들지 않고 실패한다.
+ * */
+@Configuration
+// 캐시 인터셉터가 트랜잭션 인터셉터 바깥에서 동작하도록 해서, 캐시에서 찾으면 트랜잭션(커넥션)을 시작하지 않는다.
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String STUDY_SUMMARY = "study-summary";
+
+    // 캐시에 넣고 지우는 것은 트랜잭션이 커밋된 다음에 한다. 롤백된 데이터가 캐시에 남지 않는다.
+    @Bean
+    public CacheManagerCustomizer<JCacheCacheManager> transactionAwareCacheManager() {
+        return cacheManager -> cacheManager.setTransactionAware(true);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager(javax.cache.CacheManager cacheManager) {
+        return properties -> {
+            properties.put("hibernate.javax.cache.cache_manager", cacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+
+    // 태그 이름 → id (TagService). 태그는 지우지 않으므로 크기만 제한한다.
+    @Bean
+    public Cache<String, Long> tagIdCache(AppProperties appProperties) {
+        return Caffeine.newBuilder()
+                .maximumSize(appProperties.getTag().getIdCacheSize())
+                .build();
+    }
+
+    /*
+     * 하이버네이트가 만든 2차 캐시도 스프링 CacheManager로 감싸서 cache.gets(hit, miss), cache.evictions 등의 메트릭을 남긴다.
+     * 모든 빈이 만들어진 다음(EntityManagerFactory가 캐시를 만든 다음)에 등록한다.
+     * */
+    @Bean
+    public SmartInitializingSingleton cacheMetricsBinder(javax.cache.CacheManager jCacheManager,
+                                                         CacheManager cacheManager,
+                                                         ObjectProvider<CacheMetricsRegistrar> cacheMetricsRegistrar) {
+        return () -> {
+            cacheManager.getCache(STUDY_SUMMARY);
+            cacheMetricsRegistrar.ifAvailable(registrar -> {
+                for (String name : jCacheManager.getCacheNames()) {
+                    registrar.bindCacheToRegistry(cacheManager.getCache(name), Tag.of("cacheManager", "cacheManager"));
+                }
+            });
+        };
+    }
+
+}
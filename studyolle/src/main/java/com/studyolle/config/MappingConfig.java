@@ -0,0 +1,18 @@
+package com.studyolle.config;
+
+import org.mapstruct.Builder;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/*
+ * 폼과 엔티티 사이의 매퍼 공통 설정 (MapStruct가 컴파일할 때 매핑 코드를 생성한다)
+ * - 매퍼는 스프링 빈으로 등록한다.
+ * - 엔티티의 @Builder는 필드 기본 값(studyCreatedByWeb = true 등)을 무시하므로 기본 생성자와 setter를 사용한다.
+ * - 이름이 같은 프로퍼티끼리만 복사하고, 대상에만 있는 프로퍼티는 그대로 둔다. (이전 ModelMapper 설정과 같다)
+ * */
+@MapperConfig(
+        componentModel = "spring",
+        builder = @Builder(disableBuilder = true),
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface MappingConfig {
+}
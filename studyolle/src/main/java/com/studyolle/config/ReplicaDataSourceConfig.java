@@ -0,0 +1,119 @@
+package com.studyolle.config;
+
+import com.studyolle.infra.datasource.PrimaryStickinessFilter;
+import com.studyolle.infra.jdbc.ConnectionLimitingDataSource;
+import com.studyolle.infra.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/*
+ * app.replica.url이 있으면 읽기 전용 트랜잭션은 replica, 나머지는 primary(spring.datasource)를 사용한다.
+ * 애플리케이션이 사용하는 DataSource는 LazyConnectionDataSourceProxy → ReplicaRoutingDataSource → primary / replica 풀이다.
+ * 스키마 마이그레이션(Flyway)은 트랜잭션 밖에서 실행되므로 primary에만 적용된다.
+ *
+ * 하이버네이트는 기본 설정대로 EntityManager를 닫을 때까지 커넥션을 잡고 있는다. (HibernateJpaDialect가 트랜잭션을 시작할 때
+ * 준비한 커넥션의 읽기 전용 설정을 트랜잭션이 끝날 때 되돌리려면 같은 커넥션이어야 한다)
+ * open-in-view=false이므로 EntityManager는 트랜잭션마다 새로 만들어지고, 커넥션도 트랜잭션마다 다시 고른다.
+ * open-in-view를 켜면 하나의 EntityManager가 처음 가져온 (replica) 커넥션으로 다음 트랜잭션을 실행하게 된다.
+ *
+ * 두 커넥션 풀을 따로 빈으로 등록하면 스프링 부트의 DataSource 초기화, Flyway와 순환 참조가 생기므로
+ * DataSource 빈은 하나만 두고 두 커넥션 풀은 그 빈이 만들고 닫는다.
+ * */
+@Configuration
+@ConditionalOnProperty(prefix = "app.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, AppProperties appProperties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("app.replica requires spring.jpa.open-in-view=false");
+        }
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        AppProperties.Replica replicaProperties = appProperties.getReplica();
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaProperties.getUrl())
+                .username(replicaProperties.getUsername())
+                .password(replicaProperties.getPassword())
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+        replica.setReadOnly(true);
+
+        // 가상 스레드를 사용하면 풀마다 그 풀의 크기 만큼만 커넥션을 가져가게 한다. (VirtualThreadConfig)
+        // 두 풀의 허가를 하나로 묶으면 replica로 가는 읽기가 primary의 허가를 써 버린다.
+        AppProperties.Threads threads = appProperties.getThreads();
+        DataSource primaryTarget = primary;
+        DataSource replicaTarget = replica;
+        if (threads.isVirtual()) {
+            ConnectionLimitingDataSource primaryLimit = ConnectionLimitingDataSource.of(primary, threads.getMaxConnections());
+            ConnectionLimitingDataSource replicaLimit = ConnectionLimitingDataSource.of(replica, 0);
+            meterRegistry.ifAvailable(registry -> {
+                primaryLimit.bindTo(registry);
+                replicaLimit.bindTo(registry);
+            });
+            primaryTarget = primaryLimit;
+            replicaTarget = replicaLimit;
+        }
+
+        // 풀마다 hikaricp.connections.* 메트릭을 pool 태그(primary, replica)로 구분해서 기록한다.
+        meterRegistry.ifAvailable(registry -> {
+            primary.setMetricRegistry(registry);
+            replica.setMetricRegistry(registry);
+        });
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryTarget, replicaTarget);
+        routingDataSource.afterPropertiesSet();
+        return new RoutingDataSourceProxy(routingDataSource, primary, replica);
+    }
+
+    @Bean
+    public FilterRegistrationBean<PrimaryStickinessFilter> primaryStickinessFilter(AppProperties appProperties) {
+        FilterRegistrationBean<PrimaryStickinessFilter> registration =
+                new FilterRegistrationBean<>(new PrimaryStickinessFilter(appProperties.getReplica().getStickiness()));
+        // 스프링 시큐리티 필터(자동 로그인, 로그아웃)에서 실행하는 트랜잭션도 포함한다.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+
+    // 애플리케이션이 종료될 때 두 커넥션 풀을 닫는다. (close 메소드는 빈의 destroy 메소드로 호출된다)
+    static class RoutingDataSourceProxy extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final HikariDataSource primary;
+
+        private final HikariDataSource replica;
+
+        RoutingDataSourceProxy(DataSource routingDataSource, HikariDataSource primary, HikariDataSource replica) {
+            super(routingDataSource);
+            this.primary = primary;
+            this.replica = replica;
+        }
+
+        @Override
+        public void close() {
+            replica.close();
+            primary.close();
+        }
+
+    }
+
+}
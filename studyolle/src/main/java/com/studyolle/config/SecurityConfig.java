@@ -1,19 +1,20 @@
 package com.studyolle.config;
 
 import com.studyolle.account.AccountService;
+import com.studyolle.account.CachingPersistentTokenRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
-import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
-import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
-
-import javax.sql.DataSource;
 
 @Configuration
 @EnableWebSecurity
@@ -22,14 +23,28 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final AccountService accountService;
 
-    private final DataSource dataSource;
+    // 자동 로그인할 때마다 DB를 조회하지 않도록 토큰을 캐시하는 저장소
+    private final CachingPersistentTokenRepository tokenRepository;
+
+    private final AppProperties appProperties;
+
+    private final Environment environment;
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
+        // 로드 밸런서의 헬스 체크는 로그인 없이 요청한다.
+        // 프로메테우스 수집은 내부망에만 여는 관리 포트(management.server.port)로 분리된 경우에만 로그인 없이 요청한다.
+        // 관리 포트가 분리되면 액추에이터는 애플리케이션 포트에서 응답하지 않는다.
+        if (ManagementPortType.get(environment) == ManagementPortType.DIFFERENT) {
+            http.authorizeRequests()
+                    .requestMatchers(EndpointRequest.to(PrometheusScrapeEndpoint.class)).permitAll();
+        }
+
         http.authorizeRequests()
                 .mvcMatchers("/", "/login", "/sign-up", "/check-email-token",
-                        "/email-login", "/login-by-email").permitAll()
+                        "/email-login", "/login-by-email", "/search/**").permitAll()
                 .mvcMatchers(HttpMethod.GET, "/profile/*").permitAll()
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
                 .anyRequest().authenticated();
 
         http.formLogin()
@@ -40,14 +55,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
         http.rememberMe()
                 .userDetailsService(accountService)
-                .tokenRepository(tokenRepository());
-    }
-
-    @Bean
-    public PersistentTokenRepository tokenRepository() {
-        JdbcTokenRepositoryImpl jdbcTokenRepository = new JdbcTokenRepositoryImpl();
-        jdbcTokenRepository.setDataSource(dataSource);
-        return jdbcTokenRepository;
+                .tokenRepository(tokenRepository)
+                .tokenValiditySeconds((int) appProperties.getRememberMe().getTokenValidity().getSeconds());
     }
 
     @Override
@@ -0,0 +1,46 @@
+package com.studyolle.config;
+
+import com.studyolle.infra.jdbc.SqlStatisticsDataSource;
+import com.studyolle.infra.jdbc.SqlStatisticsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/*
+ * 요청마다 실행한 SQL 문장 수, 행 수, 실행 시간을 기록한다. (SqlStatisticsFilter)
+ * 애플리케이션의 DataSource를 SqlStatisticsDataSource로 감싸서 하이버네이트, JdbcTemplate이 실행하는 SQL을 모두 센다.
+ * */
+@Configuration
+public class SqlStatisticsConfig {
+
+    // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static 메소드로 등록한다.
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof SqlStatisticsDataSource)) {
+                    return new SqlStatisticsDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(AppProperties appProperties,
+                                                                          MeterRegistry meterRegistry) {
+        AppProperties.Sql sql = appProperties.getSql();
+        FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatisticsFilter(meterRegistry, sql.getRepeatedQueryThreshold(), sql.isResponseHeaders()));
+        // 스프링 시큐리티 필터(자동 로그인, 사용자 조회)가 실행하는 SQL도 포함한다.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 3);
+        return registration;
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.studyolle.config;
+
+import com.studyolle.infra.jdbc.ConnectionLimitingDataSource;
+import com.studyolle.infra.thread.VirtualThreads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+
+/*
+ * app.threads.virtual=true 이면 톰캣이 요청마다 새 가상 스레드에서 처리한다. (메일 발송, 패스워드 해싱은 각 서비스가 설정을 보고 정한다)
+ * 요청 스레드 수가 더 이상 DB를 동시에 사용하는 요청 수를 제한하지 않으므로, 커넥션 풀을 ConnectionLimitingDataSource로 감싸서
+ * 풀 크기(primary는 app.threads.max-connections로 바꿀 수 있다) 만큼만 커넥션을 가져가게 한다.
+ *
+ * 가상 스레드는 synchronized 블록 안에서 블로킹되면 캐리어 스레드를 붙잡으므로(pinning)
+ * 톰캣 9.0.7x 이상, PostgreSQL 드라이버 42.6 이상이 필요하다. (pom.xml의 tomcat.version, postgresql.version)
+ * */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.threads", name = "virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static 메소드로 등록하고, AppProperties 대신 Environment에서 설정을 읽는다.
+    @Bean
+    public static ConnectionLimitingPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new ConnectionLimitingPostProcessor(environment.getProperty("app.threads.max-connections", Integer.class, 0));
+    }
+
+    // DataSource를 만들 때 MeterRegistry가 필요하므로(하이카리 메트릭) 모든 빈을 만든 다음 등록한다.
+    // replica를 사용하면 ReplicaDataSourceConfig가 풀마다 등록한다.
+    @Bean
+    public SmartInitializingSingleton connectionLimitingDataSourceMetrics(ObjectProvider<DataSource> dataSource,
+                                                                          ObjectProvider<MeterRegistry> meterRegistry) {
+        return () -> meterRegistry.ifAvailable(registry -> {
+            try {
+                DataSource target = dataSource.getObject();
+                if (target.isWrapperFor(ConnectionLimitingDataSource.class)
+                        && !target.isWrapperFor(ReplicaDataSourceConfig.RoutingDataSourceProxy.class)) {
+                    target.unwrap(ConnectionLimitingDataSource.class).bindTo(registry);
+                }
+            } catch (SQLException e) {
+                log.warn("failed to register connection limit metrics", e);
+            }
+        });
+    }
+
+    /*
+     * 애플리케이션의 하이카리 커넥션 풀을 ConnectionLimitingDataSource로 감싼다.
+     * replica를 사용하면 DataSource 빈은 두 풀을 고르는 프록시이므로 감싸지 않고, ReplicaDataSourceConfig가 풀마다 감싼다.
+     * SqlStatisticsDataSource 등 다른 DataSource로 감싸기 전에 하이카리 풀을 찾을 수 있도록 가장 먼저 실행한다.
+     * */
+    static class ConnectionLimitingPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        private final int maxConnections;
+
+        ConnectionLimitingPostProcessor(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource) {
+                return ConnectionLimitingDataSource.of((HikariDataSource) bean, maxConnections);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+    }
+
+    @Bean
+    public VirtualThreadProtocolHandlerCustomizer virtualThreadProtocolHandlerCustomizer() {
+        return new VirtualThreadProtocolHandlerCustomizer();
+    }
+
+    /*
+     * 톰캣 커넥터가 자체 스레드 풀(server.tomcat.threads.max) 대신 요청마다 가상 스레드를 만드는 Executor를 사용하게 한다.
+     * 톰캣은 바깥에서 넘겨준 Executor를 종료하지 않으므로 애플리케이션이 종료될 때 (웹 서버가 멈춘 다음) 종료한다.
+     * ExecutorService를 빈으로 등록하면 스프링 부트가 기본 TaskExecutor를 만들지 않으므로 빈으로 등록하지 않는다.
+     * */
+    static class VirtualThreadProtocolHandlerCustomizer implements TomcatProtocolHandlerCustomizer<ProtocolHandler>, DisposableBean {
+
+        private ExecutorService executor;
+
+        @Override
+        public void customize(ProtocolHandler protocolHandler) {
+            if (!VirtualThreads.isSupported()) {
+                log.warn("virtual threads are not supported on java {}, tomcat keeps its platform thread pool",
+                        System.getProperty("java.version"));
+                return;
+            }
+            executor = VirtualThreads.newThreadPerTaskExecutor("http-virtual-");
+            protocolHandler.setExecutor(executor);
+            log.info("tomcat serves requests on virtual threads");
+        }
+
+        @Override
+        public void destroy() {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+
+    }
+
+}
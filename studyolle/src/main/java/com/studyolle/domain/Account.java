@@ -9,21 +9,23 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
-import static javax.persistence.FetchType.*;
-
 @Entity
 @Getter @Setter @EqualsAndHashCode(of = "id") // 무한루프 방지
 @Builder @AllArgsConstructor @NoArgsConstructor
+@Table(indexes = { // 로그인할 때 이메일 또는 닉네임으로 조회한다.
+        @Index(name = "ux_account_email", columnList = "email", unique = true),
+        @Index(name = "ux_account_nickname", columnList = "nickname", unique = true)
+})
 public class Account {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     private Long id;
 
-    // 이메일과 닉네임은 유일해야 함
-    @Column(unique = true)
+    // 이메일과 닉네임은 유일해야 함 (@Table의 유니크 인덱스)
     private String email;
 
-    @Column(unique = true)
     private String nickname;
 
     public String password;
@@ -49,8 +51,8 @@ public class Account {
     // 살고 있는 지역
     private String location;
 
-    // 프로필 이미지
-    @Lob @Basic(fetch = EAGER)
+    // 프로필 이미지 (이미지 저장소의 주소 /images/{hash}만 저장한다)
+    @Column(length = 100)
     private String profileImage;
 
     // 스터디 생성 여부를 이메일 또는 웹으로 전달 받을 것인가?
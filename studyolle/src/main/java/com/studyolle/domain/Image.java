@@ -0,0 +1,28 @@
+package com.studyolle.domain;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter @EqualsAndHashCode(of = "hash")
+@Builder @AllArgsConstructor @NoArgsConstructor
+public class Image {
+
+    // 이미지 내용의 SHA-256 해시 (같은 이미지는 한 번만 저장된다)
+    @Id @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false, length = 50)
+    private String contentType;
+
+    // base64 문자열이 아닌 디코딩된 바이트를 저장한다.
+    @Column(nullable = false, length = 2 * 1024 * 1024)
+    private byte[] data;
+
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,45 @@
+package com.studyolle.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/*
+ * 발송할 메일을 저장하는 아웃박스
+ * 메일을 만든 트랜잭션과 함께 저장되고, 커밋된 다음에 EmailDispatcher가 발송한다.
+ * */
+@Entity
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Builder @AllArgsConstructor @NoArgsConstructor
+public class OutboxEmail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_email_seq")
+    @SequenceGenerator(name = "outbox_email_seq", sequenceName = "outbox_email_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    // @Lob을 사용하면 PostgreSQL에서는 large object에 저장되고 컬럼에는 oid만 남는다.
+    @Column(columnDefinition = "text")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxEmailStatus status;
+
+    // 발송을 시도한 횟수
+    private int attempts;
+
+    // PENDING이면 다음 발송 시각, SENDING이면 worker가 점유할 수 있는 기한
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+}
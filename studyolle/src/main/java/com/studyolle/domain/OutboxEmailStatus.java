@@ -0,0 +1,13 @@
+package com.studyolle.domain;
+
+public enum OutboxEmailStatus {
+
+    PENDING, // 발송 대기 (재시도 대기 포함)
+
+    SENDING, // worker가 가져가서 발송 중
+
+    SENT, // 발송 완료
+
+    FAILED // 최대 재시도 횟수를 넘겨서 발송 포기
+
+}
@@ -1,6 +1,5 @@
 package com.studyolle.domain;
 
-import com.studyolle.account.UserAccount;
 import lombok.*;
 
 import javax.persistence.*;
@@ -13,12 +12,18 @@ import java.util.Set;
         @NamedAttributeNode("zones"),
         @NamedAttributeNode("managers"),
         @NamedAttributeNode("members")})
+@NamedEntityGraph(name = "Study.withTagsAndZones", attributeNodes = {
+        @NamedAttributeNode("tags"),
+        @NamedAttributeNode("zones")})
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "ux_study_path", columnNames = "path"))
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @AllArgsConstructor @NoArgsConstructor
 public class Study{
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "study_seq")
+    @SequenceGenerator(name = "study_seq", sequenceName = "study_seq", allocationSize = 50)
     private Long id;
 
     // 스터디 관리자 - 관리자가 여러 명일 수 있다고 본다.
@@ -29,8 +34,7 @@ public class Study{
     @ManyToMany
     private Set<Account> members = new HashSet<>();
 
-    // URL 경로
-    @Column(unique = true)
+    // URL 경로 - 유일해야 함 (@Table의 ux_study_path, StudyService는 이 이름으로 경로 중복을 알아낸다)
     private String path;
 
     // 스터디 제목
@@ -76,21 +80,6 @@ public class Study{
         this.managers.add(account);
     }
 
-    public boolean isJoinable(UserAccount userAccount) {
-        Account account = userAccount.getAccount();
-        return this.isPublished() && this.isRecruiting()
-                && !this.members.contains(account) && !this.managers.contains(account);
-
-    }
-
-    public boolean isMember(UserAccount userAccount) {
-        return this.members.contains(userAccount.getAccount());
-    }
-
-    public boolean isManager(UserAccount userAccount) {
-        return this.managers.contains(userAccount.getAccount());
-    }
-
     // 연관관계 편의 메소드
     public void addMemeber(Account account) {
         this.members.add(account);
@@ -1,19 +1,39 @@
 package com.studyolle.domain;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
+// 태그는 거의 바뀌지 않으므로 2차 캐시에 두고, 이름(title)으로 찾을 때도 캐시를 사용한다. (TagRepositoryExtension)
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tag")
+@NaturalIdCache(region = "tag-natural-id")
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @AllArgsConstructor @NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "ux_tag_title", columnNames = "title"))
 public class Tag {
 
-    @Id @GeneratedValue
+    // TagService가 JDBC로 INSERT 할 때에도 같은 시퀀스를 사용한다. (pooled-lo)
+    public static final String ID_SEQUENCE = "tag_seq";
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    @NaturalId
     private String title;
 
 }
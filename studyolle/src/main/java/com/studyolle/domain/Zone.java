@@ -1,24 +1,41 @@
 package com.studyolle.domain;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.*;
 
+// 지역은 거의 바뀌지 않으므로 2차 캐시에 두고, 도시와 주(city, province)로 찾을 때도 캐시를 사용한다. (ZoneRepositoryExtension)
+// ZoneImporter가 JDBC로 바꾼 다음에는 캐시를 지운다.
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "zone")
+@NaturalIdCache(region = "zone-natural-id")
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @AllArgsConstructor @NoArgsConstructor
 @Table(uniqueConstraints = @UniqueConstraint(columnNames = {"city", "province"}))
 public class Zone {
 
-    @Id @GeneratedValue
+    // ZoneImporter가 JDBC로 INSERT 할 때에도 같은 시퀀스를 사용한다. (pooled-lo)
+    public static final String ID_SEQUENCE = "zone_seq";
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    @NaturalId
     @Column(nullable = false)
     private String city;
 
     @Column(nullable = false)
     private String localNameOfCity;
 
+    @NaturalId
     @Column(nullable = true)
     private String province;
 
@@ -0,0 +1,48 @@
+package com.studyolle.image;
+
+import com.studyolle.domain.Image;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Controller
+@RequiredArgsConstructor
+public class ImageController {
+
+    // 이미지의 주소는 내용의 해시 값이므로 내용이 바뀌지 않는다. 그래서 오래 캐시해도 된다.
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic();
+
+    private final ImageService imageService;
+
+    // 해시 형식의 경로만 처리해서 /images 아래의 정적 리소스와 겹치지 않도록 한다.
+    @GetMapping(ImageService.URL_PREFIX + "{hash:[0-9a-f]{64}}")
+    public ResponseEntity<byte[]> viewImage(@PathVariable String hash, WebRequest webRequest) {
+        String eTag = "\"" + hash + "\"";
+
+        // 브라우저가 이미 가지고 있는 이미지라면 DB를 조회하지 않고 304로 응답한다.
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CACHE_CONTROL).build();
+        }
+
+        Optional<Image> image = imageService.getImage(hash);
+        if (image.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .contentType(MediaType.parseMediaType(image.get().getContentType()))
+                .body(image.get().getData());
+    }
+
+}
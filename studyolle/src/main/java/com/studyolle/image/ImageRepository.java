@@ -0,0 +1,9 @@
+package com.studyolle.image;
+
+import com.studyolle.domain.Image;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+public interface ImageRepository extends JpaRepository<Image, String> {
+}
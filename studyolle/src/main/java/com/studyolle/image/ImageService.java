@@ -0,0 +1,126 @@
+package com.studyolle.image;
+
+import com.studyolle.domain.Image;
+import org.hibernate.dialect.PostgreSQL95Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/*
+ * 이미지는 내용의 해시로 저장하므로 같은 이미지는 한 번만 저장된다.
+ * 해시가 id인 엔티티를 save() 하면 merge로 다시 조회하므로, "없으면 INSERT" 문장 하나로 저장한다.
+ * (PostgreSQL은 on conflict do nothing, 그 외의 DB는 insert ... select ... where not exists)
+ * 여러 사용자가 동시에 같은 이미지를 올려서 유일 제약 조건을 위반해도 이미 저장된 것이므로 성공으로 처리한다.
+ * */
+@Service
+@Transactional
+public class ImageService {
+
+    public static final String URL_PREFIX = "/images/";
+
+    static final int MAX_IMAGE_SIZE = 2 * 1024 * 1024;
+
+    private static final Set<String> CONTENT_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp");
+
+    private static final Pattern IMAGE_URL = Pattern.compile("^/images/[0-9a-f]{64}$");
+
+    private static final String INSERT_ON_CONFLICT_SQL =
+            "insert into image (hash, content_type, data, created_at) values (?, ?, ?, ?) on conflict (hash) do nothing";
+
+    private static final String INSERT_IF_ABSENT_SQL =
+            "insert into image (hash, content_type, data, created_at) select ?, ?, ?, ? " +
+            "where not exists (select 1 from image where hash = ?)";
+
+    private final ImageRepository imageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean onConflictSupported;
+
+    public ImageService(ImageRepository imageRepository, JdbcTemplate jdbcTemplate,
+                        EntityManagerFactory entityManagerFactory) {
+        this.imageRepository = imageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.onConflictSupported = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQL95Dialect;
+    }
+
+    /*
+     * 프로필 폼에서 넘어온 값을 Account에 저장할 짧은 참조(/images/{hash})로 바꾼다.
+     * - data URL이면 디코딩해서 이미지 저장소에 저장한다.
+     * - 이미 저장된 이미지의 참조라면 그대로 사용한다.
+     * */
+    public String toReference(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+
+        if (IMAGE_URL.matcher(value).matches()) {
+            return value;
+        }
+
+        return URL_PREFIX + store(value);
+    }
+
+    // data URL을 디코딩해서 저장하고 내용의 해시 값을 반환한다.
+    public String store(String dataUrl) {
+        int comma = dataUrl.indexOf(',');
+        if (!dataUrl.startsWith("data:") || comma < 0 || !dataUrl.substring(0, comma).endsWith(";base64")) {
+            throw new IllegalArgumentException("data URL 형식의 이미지가 아닙니다.");
+        }
+
+        String contentType = dataUrl.substring("data:".length(), comma - ";base64".length());
+        if (!CONTENT_TYPES.contains(contentType)) {
+            throw new IllegalArgumentException(contentType + "은(는) 지원하지 않는 이미지 형식입니다.");
+        }
+
+        byte[] data = Base64.getDecoder().decode(dataUrl.substring(comma + 1).getBytes(StandardCharsets.US_ASCII));
+        if (data.length > MAX_IMAGE_SIZE) {
+            throw new IllegalArgumentException("이미지 크기는 " + MAX_IMAGE_SIZE + " 바이트를 넘을 수 없습니다.");
+        }
+
+        String hash = sha256(data);
+        insertIfAbsent(hash, contentType, data);
+        return hash;
+    }
+
+    private void insertIfAbsent(String hash, String contentType, byte[] data) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        try {
+            if (onConflictSupported) {
+                jdbcTemplate.update(INSERT_ON_CONFLICT_SQL, hash, contentType, data, createdAt);
+            } else {
+                jdbcTemplate.update(INSERT_IF_ABSENT_SQL, hash, contentType, data, createdAt, hash);
+            }
+        } catch (DuplicateKeyException e) {
+            // 다른 트랜잭션이 같은 이미지를 먼저 INSERT 했다. (PostgreSQL은 트랜잭션이 중단되므로 on conflict를 사용한다)
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Image> getImage(String hash) {
+        return imageRepository.findById(hash);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return String.format("%064x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.studyolle.infra.datasource;
+
+/*
+ * 현재 요청(스레드)이 primary에만 접근해야 하는지와, 요청 중에 쓰기 트랜잭션이 있었는지를 기록한다.
+ * PrimaryStickinessFilter가 요청마다 시작하고 끝낸다. 요청 밖(스케줄러, 이벤트 리스너 등)에서는 기록하지 않는다.
+ * */
+public final class PrimaryStickiness {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private PrimaryStickiness() {
+    }
+
+    static void begin(boolean pinned) {
+        CURRENT.set(new State(pinned));
+    }
+
+    // 요청 중에 쓰기 트랜잭션이 있었다면 true
+    static boolean end() {
+        State state = CURRENT.get();
+        CURRENT.remove();
+        return state != null && state.written;
+    }
+
+    // 읽기 전용 트랜잭션도 primary에서 실행해야 하는가?
+    public static boolean isPinned() {
+        State state = CURRENT.get();
+        return state != null && (state.pinned || state.written);
+    }
+
+    public static void markWritten() {
+        State state = CURRENT.get();
+        if (state != null) {
+            state.written = true;
+        }
+    }
+
+    private static class State {
+
+        private final boolean pinned;
+
+        private boolean written;
+
+        State(boolean pinned) {
+            this.pinned = pinned;
+        }
+
+    }
+
+}
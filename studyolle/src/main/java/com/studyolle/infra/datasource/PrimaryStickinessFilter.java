@@ -0,0 +1,51 @@
+package com.studyolle.infra.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.time.Duration;
+
+/*
+ * 쓰기 트랜잭션을 실행한 세션은 stickiness 동안 읽기 전용 트랜잭션도 primary에서 실행한다. (read-your-writes)
+ * 세션에 primary를 사용할 기한을 저장하고, 요청마다 기한이 지났는지 확인한다.
+ * 세션이 없는 요청은 기록하지 않는다. (로그인하지 않은 사용자가 쓰는 경우는 회원 가입뿐이고, 가입하면서 로그인한다)
+ * */
+public class PrimaryStickinessFilter extends OncePerRequestFilter {
+
+    static final String STICK_UNTIL = PrimaryStickinessFilter.class.getName() + ".STICK_UNTIL";
+
+    private final long stickinessMillis;
+
+    public PrimaryStickinessFilter(Duration stickiness) {
+        this.stickinessMillis = stickiness.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        PrimaryStickiness.begin(isSticky(request.getSession(false)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            boolean written = PrimaryStickiness.end();
+            HttpSession session = request.getSession(false);
+            if (written && session != null) {
+                session.setAttribute(STICK_UNTIL, System.currentTimeMillis() + stickinessMillis);
+            }
+        }
+    }
+
+    private static boolean isSticky(HttpSession session) {
+        if (session == null) {
+            return false;
+        }
+        Object stickUntil = session.getAttribute(STICK_UNTIL);
+        return stickUntil instanceof Long && System.currentTimeMillis() < (Long) stickUntil;
+    }
+
+}
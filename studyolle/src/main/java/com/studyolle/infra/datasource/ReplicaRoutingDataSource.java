@@ -0,0 +1,40 @@
+package com.studyolle.infra.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/*
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica로, 그 외에는 primary로 보낸다.
+ * - 트랜잭션의 읽기 전용 여부는 트랜잭션을 시작한 다음에 정해지므로 LazyConnectionDataSourceProxy로 감싸서
+ *   첫 번째 SQL을 실행할 때 커넥션을 가져오게 해야 한다.
+ * - 쓰기 트랜잭션을 실행한 요청의 세션은 잠시 동안 primary만 사용한다. (PrimaryStickiness)
+ *   복제가 늦어도 방금 바꾼 내용을 다음 화면에서 볼 수 있다.
+ * - 트랜잭션 밖에서 가져가는 커넥션(스키마 마이그레이션, 지연 로딩 등)은 primary를 사용한다.
+ * */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            PrimaryStickiness.markWritten();
+            return Route.PRIMARY;
+        }
+        return PrimaryStickiness.isPinned() ? Route.PRIMARY : Route.REPLICA;
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.studyolle.infra.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * 동시에 사용하는 커넥션 수를 세마포어로 제한한다.
+ * 가상 스레드로 요청을 처리하면 톰캣 스레드 수가 동시에 DB를 사용하는 요청 수를 제한하지 못하므로,
+ * 커넥션 풀 크기 만큼만 커넥션을 가져가고 나머지는 세마포어에서 (캐리어 스레드를 붙잡지 않고) 순서대로 기다린다.
+ * 풀에서 기다리다 타임아웃 되는 요청이 몰려서 실패하지 않고, DB에 풀 크기보다 많은 일을 보내지 않는다.
+ * 커넥션을 닫으면(풀에 돌려주면) 허가를 돌려준다.
+ * 커넥션 풀마다 하나씩 감싼다. (replica를 사용하면 primary, replica 풀이 각자의 크기 만큼 허가를 가진다)
+ * */
+public class ConnectionLimitingDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final String poolName;
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    public ConnectionLimitingDataSource(DataSource targetDataSource, String poolName, int maxConnections, Duration timeout) {
+        super(targetDataSource);
+        this.poolName = poolName;
+        this.permits = new Semaphore(maxConnections, true);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    // 하이카리 풀의 크기(maxConnections가 0 이하일 때)와 커넥션을 기다리는 시간을 그대로 사용한다.
+    // 풀 이름을 정하지 않으면 하이카리는 풀을 시작할 때 이름을 만들므로 그 전에는 default로 부른다.
+    public static ConnectionLimitingDataSource of(HikariDataSource pool, int maxConnections) {
+        return new ConnectionLimitingDataSource(pool, Objects.requireNonNullElse(pool.getPoolName(), "default"),
+                maxConnections > 0 ? maxConnections : pool.getMaximumPoolSize(),
+                Duration.ofMillis(pool.getConnectionTimeout()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jdbc.connections.waiting", this, ConnectionLimitingDataSource::getWaitingThreads)
+                .description("커넥션을 기다리는 스레드 수")
+                .tag("pool", poolName)
+                .register(registry);
+    }
+
+    // 커넥션을 기다리는 스레드 수
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("connection is not available, waited "
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms for a permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("interrupted while waiting for a connection permit", e);
+        }
+    }
+
+    private Connection limited(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            } finally {
+                                // close()를 여러 번 호출해도 한 번만 돌려준다.
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+
+}
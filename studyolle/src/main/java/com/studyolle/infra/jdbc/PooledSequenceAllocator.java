@@ -0,0 +1,50 @@
+package com.studyolle.infra.jdbc;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+/*
+ * JDBC로 직접 INSERT 할 때 엔티티의 시퀀스에서 id를 할당한다.
+ * 하이버네이트의 pooled-lo 최적화와 같은 방식이다.
+ * - 시퀀스는 allocationSize 만큼씩 증가한다.
+ * - 시퀀스 값 v를 받으면 v ~ v + allocationSize - 1 을 메모리에서 차례로 사용한다.
+ * 그래서 하이버네이트(@SequenceGenerator의 allocationSize가 같아야 한다)와 같은 시퀀스를 함께 사용해도 id가 겹치지 않는다.
+ * */
+public class PooledSequenceAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String nextValueSql;
+
+    private final int allocationSize;
+
+    private long next;
+
+    private long limit;
+
+    public PooledSequenceAllocator(JdbcTemplate jdbcTemplate, String nextValueSql, int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueSql = nextValueSql;
+        this.allocationSize = allocationSize;
+    }
+
+    // 시퀀스의 다음 값을 가져오는 SQL은 DB마다 다르므로 하이버네이트의 Dialect에서 가져온다.
+    public static PooledSequenceAllocator of(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                             String sequenceName, int allocationSize) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        return new PooledSequenceAllocator(jdbcTemplate, dialect.getSequenceNextValString(sequenceName), allocationSize);
+    }
+
+    public synchronized long nextId() {
+        if (next == limit) {
+            Long value = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+            next = value;
+            limit = value + allocationSize;
+        }
+        return next++;
+    }
+
+}
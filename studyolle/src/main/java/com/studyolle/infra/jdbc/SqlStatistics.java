@@ -0,0 +1,90 @@
+package com.studyolle.infra.jdbc;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+ * 요청 하나가 실행한 SQL 문장 수, 행 수, 실행 시간을 기록한다.
+ * SqlStatisticsFilter가 요청마다 시작하고 끝낸다. 요청 밖(스케줄러, 이벤트 리스너 등)에서는 기록하지 않는다.
+ * - 문장 수: execute* 호출 수. JDBC 배치(executeBatch)는 한 번의 왕복이므로 하나로 센다.
+ * - 행 수: 조회한 행(ResultSet.next) 수와 INSERT, UPDATE, DELETE가 바꾼 행 수의 합
+ * - 실행 시간: execute* 호출에 걸린 시간 (조회한 행을 읽는 시간은 포함하지 않는다)
+ * */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+
+    private long rows;
+
+    private long nanos;
+
+    // SQL마다 실행한 횟수 (같은 SELECT를 여러 번 실행했다면 N+1을 의심한다)
+    private final Map<String, Integer> executions = new LinkedHashMap<>();
+
+    static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // 요청 밖이라면 null
+    static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    void executed(String sql, long nanos) {
+        this.statements++;
+        this.nanos += nanos;
+        if (sql != null) {
+            executions.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void addRows(long rows) {
+        if (rows > 0) {
+            this.rows += rows;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public Map<String, Integer> getExecutions() {
+        return Collections.unmodifiableMap(executions);
+    }
+
+    // threshold 번 이상 실행한 SELECT 문장
+    public Map<String, Integer> getRepeatedQueries(int threshold) {
+        return executions.entrySet().stream()
+                .filter(e -> e.getValue() >= threshold && isSelect(e.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + rows + " rows, " + nanos / 1_000_000 + " ms";
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.studyolle.infra.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/*
+ * DataSource가 내주는 커넥션과 문장(Statement), 결과(ResultSet)를 감싸서 SqlStatistics에 기록한다.
+ * 하이버네이트의 StatementInspector는 SQL 문자열만 볼 수 있어서 행 수와 실행 시간을 알 수 없고,
+ * JdbcTemplate으로 직접 실행하는 SQL(PooledSequenceAllocator, ZoneImporter 등)도 볼 수 없으므로 DataSource를 감싼다.
+ * 요청 밖에서는 호출을 그대로 넘기기만 한다.
+ * */
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    public SqlStatisticsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatisticsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        DelegatingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // 하이버네이트는 문장을 HashMap에 담아 두므로 프록시끼리 비교한다.
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                case "isWrapperFor":
+                    return delegate(method, args);
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+    }
+
+    // createStatement, prepareStatement, prepareCall이 돌려주는 문장을 감싼다.
+    private static class ConnectionHandler extends DelegatingHandler {
+
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (result instanceof Statement) {
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return proxy(method.getReturnType(), new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+
+    }
+
+    private static class StatementHandler extends DelegatingHandler {
+
+        // PreparedStatement, CallableStatement의 SQL (Statement는 execute*의 인자로 받는다)
+        private final String preparedSql;
+
+        StatementHandler(Statement target, String preparedSql) {
+            super(target);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            SqlStatistics statistics = SqlStatistics.current();
+            if (statistics == null) {
+                return delegate(method, args);
+            }
+            if (name.equals("getResultSet")) {
+                return wrap(delegate(method, args), statistics);
+            }
+            if (!name.startsWith("execute")) {
+                return delegate(method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            long start = System.nanoTime();
+            Object result = delegate(method, args);
+            statistics.executed(sql, System.nanoTime() - start);
+
+            if (result instanceof Number) {
+                statistics.addRows(((Number) result).longValue());
+            } else if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    statistics.addRows(count);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    statistics.addRows(count);
+                }
+            }
+            return wrap(result, statistics);
+        }
+
+        private static Object wrap(Object result, SqlStatistics statistics) {
+            if (result instanceof ResultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, statistics));
+            }
+            return result;
+        }
+
+    }
+
+    private static class ResultSetHandler extends DelegatingHandler {
+
+        private final SqlStatistics statistics;
+
+        ResultSetHandler(ResultSet target, SqlStatistics statistics) {
+            super(target);
+            this.statistics = statistics;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                statistics.addRows(1);
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.studyolle.infra.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 요청마다 실행한 SQL을 SqlStatistics에 기록하고, 요청이 끝나면
+ * - sql.request.statements, sql.request.rows, sql.request.time 메트릭에 uri(요청을 처리한 핸들러의 패턴) 별로 기록한다.
+ * - 같은 SELECT를 repeatedQueryThreshold 번 이상 실행했다면 N+1을 의심하고 경고 로그를 남긴다. (sql.request.repeated 메트릭)
+ * - 요청 속성(ATTRIBUTE)으로 SqlStatistics를 남긴다. (테스트에서 쿼리 예산을 확인할 때 사용한다)
+ * responseHeaders를 켜면 응답이 커밋될 때까지 실행한 SQL을 X-SQL-* 응답 헤더로도 보낸다. (개발할 때만 켠다)
+ * */
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String ATTRIBUTE = SqlStatistics.class.getName();
+
+    static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    static final String ROWS_HEADER = "X-SQL-Rows";
+    static final String TIME_HEADER = "X-SQL-Time-Millis";
+
+    private final MeterRegistry meterRegistry;
+
+    private final int repeatedQueryThreshold;
+
+    private final boolean responseHeaders;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry, int repeatedQueryThreshold, boolean responseHeaders) {
+        this.meterRegistry = meterRegistry;
+        this.repeatedQueryThreshold = repeatedQueryThreshold;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.begin();
+        request.setAttribute(ATTRIBUTE, statistics);
+        HeaderWritingResponse headerWritingResponse = responseHeaders ? new HeaderWritingResponse(response, statistics) : null;
+        try {
+            filterChain.doFilter(request, headerWritingResponse != null ? headerWritingResponse : response);
+        } finally {
+            SqlStatistics.end();
+            if (headerWritingResponse != null && !response.isCommitted()) {
+                headerWritingResponse.writeHeaders();
+            }
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Tags tags = Tags.of("uri", uri(request));
+        DistributionSummary.builder("sql.request.statements")
+                .description("요청 하나가 실행한 SQL 문장 수")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("sql.request.rows")
+                .description("요청 하나가 조회하거나 바꾼 행 수")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getRows());
+        Timer.builder("sql.request.time")
+                .description("요청 하나가 SQL을 실행하는 데 걸린 시간")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+
+        Map<String, Integer> repeatedQueries = statistics.getRepeatedQueries(repeatedQueryThreshold);
+        if (!repeatedQueries.isEmpty()) {
+            meterRegistry.counter("sql.request.repeated", tags).increment();
+            repeatedQueries.forEach((sql, count) ->
+                    log.warn("possible N+1 in {} {}: same query executed {} times: {}", request.getMethod(), uri(request), count, sql));
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    // 뷰를 렌더링하다가 버퍼가 차서 응답이 커밋되면 그 뒤로는 헤더를 쓸 수 없으므로 커밋되기 직전에 쓴다.
+    private static class HeaderWritingResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatistics statistics;
+
+        private boolean written;
+
+        HeaderWritingResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (written) {
+                return;
+            }
+            written = true;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            response.setIntHeader(STATEMENTS_HEADER, statistics.getStatements());
+            response.setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+            response.setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.getNanos() / 1_000_000.0));
+        }
+
+    }
+
+}
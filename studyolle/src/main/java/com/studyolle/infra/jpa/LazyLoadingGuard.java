@@ -0,0 +1,55 @@
+package com.studyolle.infra.jpa;
+
+import org.hibernate.HibernateException;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/*
+ * 트랜잭션 밖에서 지연 로딩(프록시 초기화, 컬렉션 초기화)을 하면 LazyInitializationException을 던진다.
+ * open-in-view를 사용하지 않으면 트랜잭션이 끝날 때 영속성 컨텍스트도 닫히므로 하이버네이트가 예외를 던지지만,
+ * 영속성 컨텍스트가 열려 있다면(open-in-view를 다시 켜거나, EntityManager를 직접 연 경우) 트랜잭션 없이 SQL을 실행한다.
+ * 뷰를 렌더링하면서 커넥션을 다시 잡는 코드가 들어오지 않도록 테스트에서 켠다. (pom.xml의 surefire 설정)
+ * */
+@Component
+@ConditionalOnProperty(prefix = "app.jpa", name = "lazy-loading-guard", havingValue = "true")
+public class LazyLoadingGuard implements LoadEventListener, InitializeCollectionEventListener {
+
+    public LazyLoadingGuard(EntityManagerFactory entityManagerFactory) {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.prependListeners(EventType.LOAD, this);
+        registry.prependListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    // 프록시를 초기화할 때는 IMMEDIATE_LOAD로 조회한다. (find, getReference 등은 검사하지 않는다)
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+            check(event.getEntityClassName() + "#" + event.getEntityId());
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        check(event.getCollection().getRole());
+    }
+
+    private static void check(String target) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new LazyInitializationException("lazy loading outside a transaction: " + target);
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.studyolle.infra.thread;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * 가상 스레드(JDK 21)를 만든다.
+ * 애플리케이션은 자바 11로 컴파일하므로 Thread.ofVirtual(), Executors.newThreadPerTaskExecutor()를 리플렉션으로 호출하고,
+ * 가상 스레드를 지원하지 않는 JDK에서는 경고 로그를 남기고 플랫폼 스레드를 사용한다.
+ * */
+@Slf4j
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ReflectiveOperationException e) {
+            // JDK 21 미만
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /*
+     * virtual이 true이고 JDK가 지원하면 이름이 prefix0, prefix1, ... 인 가상 스레드를, 아니면 플랫폼 스레드를 만드는 ThreadFactory
+     * */
+    public static ThreadFactory threadFactory(String prefix, boolean virtual) {
+        if (virtual && isSupported()) {
+            try {
+                Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+                return (ThreadFactory) FACTORY.invoke(builder);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("failed to create virtual thread factory", e);
+            }
+        }
+        if (virtual) {
+            log.warn("virtual threads are not supported on java {}, using platform threads for {}",
+                    System.getProperty("java.version"), prefix);
+        }
+        return new CustomizableThreadFactory(prefix);
+    }
+
+    /*
+     * 작업마다 새 가상 스레드에서 실행하는 ExecutorService (스레드 풀을 두지 않는다)
+     * */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("virtual threads require java 21 or later, running on java "
+                    + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory(prefix, true));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("failed to create virtual thread executor", e);
+        }
+    }
+
+}
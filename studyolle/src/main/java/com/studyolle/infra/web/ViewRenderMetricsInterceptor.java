@@ -0,0 +1,69 @@
+package com.studyolle.infra.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 뷰(타임리프 템플릿)를 렌더링하는 데 걸린 시간을 view.render 메트릭에 템플릿 이름(view 태그) 별로 기록한다.
+ * postHandle은 렌더링 직전에, afterCompletion은 렌더링이 끝난 다음에 호출되므로 그 사이의 시간을 잰다.
+ * 리다이렉트, 포워드와 뷰가 없는 응답(@ResponseBody 등)은 기록하지 않는다.
+ * */
+public class ViewRenderMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String RENDERING = ViewRenderMetricsInterceptor.class.getName() + ".RENDERING";
+
+    private final MeterRegistry meterRegistry;
+
+    public ViewRenderMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null) {
+            return;
+        }
+        String viewName = modelAndView.getViewName();
+        if (viewName == null || viewName.startsWith("redirect:") || viewName.startsWith("forward:")) {
+            return;
+        }
+        request.setAttribute(RENDERING, new Rendering(viewName, System.nanoTime()));
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Rendering rendering = (Rendering) request.getAttribute(RENDERING);
+        if (rendering == null) {
+            return;
+        }
+        request.removeAttribute(RENDERING);
+        Timer.builder("view.render")
+                .description("뷰를 렌더링하는 데 걸린 시간")
+                .tag("view", rendering.viewName)
+                .tag("exception", ex == null ? "None" : ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .record(System.nanoTime() - rendering.startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static class Rendering {
+
+        private final String viewName;
+
+        private final long startNanos;
+
+        Rendering(String viewName, long startNanos) {
+            this.viewName = viewName;
+            this.startNanos = startNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.studyolle.mail;
+
+import com.studyolle.config.AppProperties;
+import com.studyolle.domain.OutboxEmail;
+import com.studyolle.infra.thread.VirtualThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 아웃박스에 쌓인 메일을 정해진 수의 worker로 발송한다.
+ * 각 worker는 메일을 batchSize 만큼 가져와서 하나의 SMTP 연결로 보내고, 더 보낼 메일이 없을 때까지 반복한다.
+ * */
+@Slf4j
+@Component
+public class EmailDispatcher {
+
+    private final EmailOutboxService emailOutboxService;
+    private final EmailService emailService;
+    private final AppProperties.Mail mail;
+    private final ThreadPoolExecutor executor;
+
+    // 메일을 가져가는(claim) 작업은 한 번에 하나의 worker만 하도록 해서 같은 메일을 두 번 보내지 않도록 한다.
+    // 여러 서버에서 실행한다면 SELECT ... FOR UPDATE SKIP LOCKED 같은 DB 잠금이 필요하다.
+    private final Object claimLock = new Object();
+
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public EmailDispatcher(EmailOutboxService emailOutboxService, EmailService emailService,
+                           AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailService = emailService;
+        this.mail = appProperties.getMail();
+
+        // 대기 큐 없이 worker 수 만큼만 실행한다. 모든 worker가 바쁘다면 일하고 있는 worker가 이어서 보낸다.
+        // 가상 스레드를 사용해도 동시에 여는 SMTP 연결 수는 worker 수로 제한한다.
+        this.executor = new ThreadPoolExecutor(mail.getWorkers(), mail.getWorkers(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), VirtualThreads.threadFactory("email-sender-", appProperties.getThreads().isVirtual()));
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.sendTimer = Timer.builder("email.send")
+                .description("하나의 SMTP 연결로 메일 묶음을 보내는 데 걸린 시간")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("email.sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("email.failed").register(meterRegistry);
+        Gauge.builder("email.outbox.pending", emailOutboxService, EmailOutboxService::countPending)
+                .description("발송을 기다리는 메일 수")
+                .register(meterRegistry);
+        Gauge.builder("email.workers.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    // 메일을 저장한 트랜잭션이 커밋된 다음에 발송을 시작한다.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailEnqueued(EmailEnqueuedEvent event) {
+        dispatch();
+    }
+
+    // 재시도할 메일과 서버가 종료되는 바람에 보내지 못한 메일을 주기적으로 확인한다.
+    @Scheduled(fixedDelayString = "${app.mail.poll-interval:10000}")
+    public void poll() {
+        int released = emailOutboxService.releaseExpiredClaims();
+        if (released > 0) {
+            log.warn("released {} emails whose claim expired", released);
+        }
+        dispatch();
+    }
+
+    // 보존 기간이 지난 SENT, FAILED 메일을 지워서 아웃박스가 계속 커지지 않도록 한다.
+    @Scheduled(cron = "${app.mail.purge-cron:0 30 4 * * *}")
+    public void purgeCompleted() {
+        int purged = emailOutboxService.purgeCompleted();
+        log.info("purged {} sent or failed emails from the outbox", purged);
+    }
+
+    public void dispatch() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // 모든 worker가 일하고 있다. 그 worker들이 남은 메일을 이어서 보낸다.
+        }
+    }
+
+    private void drain() {
+        List<OutboxEmail> batch;
+        while (!(batch = claim()).isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private List<OutboxEmail> claim() {
+        synchronized (claimLock) {
+            return emailOutboxService.claim(mail.getBatchSize());
+        }
+    }
+
+    private void send(List<OutboxEmail> batch) {
+        List<EmailMessage> emailMessages = new ArrayList<>();
+        batch.forEach(outboxEmail -> emailMessages.add(EmailMessage.builder()
+                .to(outboxEmail.getRecipient())
+                .subject(outboxEmail.getSubject())
+                .message(outboxEmail.getMessage())
+                .build()));
+
+        Set<EmailMessage> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        long start = System.nanoTime();
+        try {
+            failed.addAll(emailService.sendEmails(emailMessages));
+        } catch (RuntimeException e) {
+            log.error("failed to send emails", e);
+            failed.addAll(emailMessages);
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            (failed.contains(emailMessages.get(i)) ? failedIds : sentIds).add(batch.get(i).getId());
+        }
+        sentCounter.increment(sentIds.size());
+        failedCounter.increment(failedIds.size());
+
+        emailOutboxService.complete(sentIds, failedIds);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+}
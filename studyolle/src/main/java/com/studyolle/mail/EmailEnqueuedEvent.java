@@ -0,0 +1,8 @@
+package com.studyolle.mail;
+
+/*
+ * 아웃박스에 메일이 저장되었다는 신호
+ * EmailDispatcher는 특정 메일이 아니라 보낼 차례가 된 메일을 모두 가져가므로 메일 id를 담지 않는다.
+ * */
+public class EmailEnqueuedEvent {
+}
@@ -0,0 +1,96 @@
+package com.studyolle.mail;
+
+import com.studyolle.config.AppProperties;
+import com.studyolle.domain.OutboxEmail;
+import com.studyolle.domain.OutboxEmailStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppProperties appProperties;
+
+    /*
+     * 현재 트랜잭션 안에서 보낼 메일을 저장한다.
+     * 트랜잭션이 커밋되면 EmailEnqueuedEvent를 받은 EmailDispatcher가 발송한다.
+     * */
+    public void enqueue(EmailMessage emailMessage) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEmailRepository.save(OutboxEmail.builder()
+                .recipient(emailMessage.getTo())
+                .subject(emailMessage.getSubject())
+                .message(emailMessage.getMessage())
+                .status(OutboxEmailStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+
+        eventPublisher.publishEvent(new EmailEnqueuedEvent());
+    }
+
+    // 보낼 차례가 된 메일을 최대 batchSize 만큼 가져와서 SENDING 상태로 점유한다.
+    public List<OutboxEmail> claim(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> outboxEmails = outboxEmailRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                OutboxEmailStatus.PENDING, now, PageRequest.of(0, batchSize));
+
+        LocalDateTime claimedUntil = now.plus(appProperties.getMail().getClaimTimeout());
+        outboxEmails.forEach(outboxEmail -> {
+            outboxEmail.setStatus(OutboxEmailStatus.SENDING);
+            outboxEmail.setNextAttemptAt(claimedUntil);
+        });
+
+        return outboxEmails;
+    }
+
+    public void complete(Collection<Long> sentIds, Collection<Long> failedIds) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEmailRepository.findAllById(sentIds).forEach(outboxEmail -> {
+            outboxEmail.setAttempts(outboxEmail.getAttempts() + 1);
+            outboxEmail.setStatus(OutboxEmailStatus.SENT);
+            outboxEmail.setSentAt(now);
+        });
+
+        AppProperties.Mail mail = appProperties.getMail();
+        outboxEmailRepository.findAllById(failedIds).forEach(outboxEmail -> {
+            int attempts = outboxEmail.getAttempts() + 1;
+            outboxEmail.setAttempts(attempts);
+            if (attempts >= mail.getMaxAttempts()) {
+                outboxEmail.setStatus(OutboxEmailStatus.FAILED);
+                return;
+            }
+
+            // 재시도 간격은 retryBackoff, 2 * retryBackoff, 4 * retryBackoff ... 로 늘어난다.
+            Duration backoff = mail.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 16));
+            outboxEmail.setStatus(OutboxEmailStatus.PENDING);
+            outboxEmail.setNextAttemptAt(now.plus(backoff));
+        });
+    }
+
+    public int releaseExpiredClaims() {
+        return outboxEmailRepository.releaseExpiredClaims(LocalDateTime.now());
+    }
+
+    public int purgeCompleted() {
+        return outboxEmailRepository.deleteCompleted(LocalDateTime.now().minus(appProperties.getMail().getRetention()));
+    }
+
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return outboxEmailRepository.countByStatus(OutboxEmailStatus.PENDING);
+    }
+
+}
@@ -1,7 +1,26 @@
 package com.studyolle.mail;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface EmailService {
 
     void sendEmail(EmailMessage emailMessage);
 
+    /*
+     * 여러 메일을 보내고, 보내지 못한 메일 목록을 반환한다.
+     * 기본 구현은 한 통씩 보낸다. SMTP 연결을 재사용할 수 있는 구현체는 이 메소드를 재정의한다.
+     * */
+    default List<EmailMessage> sendEmails(List<EmailMessage> emailMessages) {
+        List<EmailMessage> failed = new ArrayList<>();
+        for (EmailMessage emailMessage : emailMessages) {
+            try {
+                sendEmail(emailMessage);
+            } catch (RuntimeException e) {
+                failed.add(emailMessage);
+            }
+        }
+        return failed;
+    }
+
 }
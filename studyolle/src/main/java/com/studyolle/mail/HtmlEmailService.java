@@ -3,12 +3,16 @@ package com.studyolle.mail;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Profile("dev")
@@ -20,16 +24,65 @@ public class HtmlEmailService implements EmailService {
 
     @Override
     public void sendEmail(EmailMessage emailMessage) {
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
         try {
-            MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
-            mimeMessageHelper.setTo(emailMessage.getTo());
-            mimeMessageHelper.setSubject(emailMessage.getSubject());
-            mimeMessageHelper.setText(emailMessage.getMessage(), true);
-            javaMailSender.send(mimeMessage);
+            javaMailSender.send(createMimeMessage(emailMessage));
             log.info("sent email: {}", emailMessage.getMessage());
         } catch (MessagingException e) {
             log.error("failed to send email", e);
         }
     }
-}
\ No newline at end of file
+
+    /*
+     * JavaMailSender.send(MimeMessage...)는 하나의 SMTP 연결로 모든 메일을 보낸다.
+     * 일부 메일만 실패하면 MailSendException에 실패한 메일이 담겨 있다.
+     * */
+    @Override
+    public List<EmailMessage> sendEmails(List<EmailMessage> emailMessages) {
+        List<EmailMessage> failed = new ArrayList<>();
+        List<EmailMessage> prepared = new ArrayList<>();
+        List<MimeMessage> mimeMessages = new ArrayList<>();
+        for (EmailMessage emailMessage : emailMessages) {
+            try {
+                mimeMessages.add(createMimeMessage(emailMessage));
+                prepared.add(emailMessage);
+            } catch (MessagingException e) {
+                log.error("failed to create email to {}", emailMessage.getTo(), e);
+                failed.add(emailMessage);
+            }
+        }
+
+        if (mimeMessages.isEmpty()) {
+            return failed;
+        }
+
+        try {
+            javaMailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            for (int i = 0; i < mimeMessages.size(); i++) {
+                if (e.getFailedMessages().containsKey(mimeMessages.get(i))) {
+                    failed.add(prepared.get(i));
+                }
+            }
+            // 실패한 메일을 특정할 수 없다면 연결 자체가 실패한 것이다.
+            if (e.getFailedMessages().isEmpty()) {
+                failed.addAll(prepared);
+            }
+            log.error("failed to send {} of {} emails", failed.size(), emailMessages.size(), e);
+        } catch (MailException e) {
+            log.error("failed to send emails", e);
+            failed.addAll(prepared);
+        }
+
+        log.info("sent {} emails", emailMessages.size() - failed.size());
+        return failed;
+    }
+
+    private MimeMessage createMimeMessage(EmailMessage emailMessage) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+        mimeMessageHelper.setTo(emailMessage.getTo());
+        mimeMessageHelper.setSubject(emailMessage.getSubject());
+        mimeMessageHelper.setText(emailMessage.getMessage(), true);
+        return mimeMessage;
+    }
+}
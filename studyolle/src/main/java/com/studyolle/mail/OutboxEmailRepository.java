@@ -0,0 +1,37 @@
+package com.studyolle.mail;
+
+import com.studyolle.domain.OutboxEmail;
+import com.studyolle.domain.OutboxEmailStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    List<OutboxEmail> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(OutboxEmailStatus status, LocalDateTime now,
+                                                                            Pageable pageable);
+
+    long countByStatus(OutboxEmailStatus status);
+
+    // 점유 기한이 지난 SENDING 메일(발송 도중 서버가 종료된 경우 등)을 다시 PENDING으로 돌린다.
+    @Transactional
+    @Modifying
+    @Query("update OutboxEmail e set e.status = com.studyolle.domain.OutboxEmailStatus.PENDING " +
+            "where e.status = com.studyolle.domain.OutboxEmailStatus.SENDING and e.nextAttemptAt < :now")
+    int releaseExpiredClaims(@Param("now") LocalDateTime now);
+
+    // 보존 기간이 지난 SENT, FAILED 메일을 지운다.
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEmail e where e.status in (com.studyolle.domain.OutboxEmailStatus.SENT, " +
+            "com.studyolle.domain.OutboxEmailStatus.FAILED) and e.createdAt < :createdBefore")
+    int deleteCompleted(@Param("createdBefore") LocalDateTime createdBefore);
+
+}
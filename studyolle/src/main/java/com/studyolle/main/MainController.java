@@ -2,17 +2,22 @@ package com.studyolle.main;
 
 import com.studyolle.account.CurrentAccount;
 import com.studyolle.domain.Account;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @Controller
+@RequiredArgsConstructor
 public class MainController {
 
+    private final StudyRecommendationService studyRecommendationService;
+
     @GetMapping("/")
     public String home(@CurrentAccount Account account, Model model){
         if(account != null){
             model.addAttribute(account);
+            model.addAttribute("studyList", studyRecommendationService.recommend(account)); // 관심 태그와 지역으로 추천한 스터디
         }
 
         return "index";
@@ -0,0 +1,194 @@
+package com.studyolle.main;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studyolle.account.AccountInterestsChangedEvent;
+import com.studyolle.account.AccountRepository;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import com.studyolle.study.StudyChangedEvent;
+import com.studyolle.study.StudyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * 계정의 관심 태그와 지역으로 공개되었고 인원을 모집 중인 스터디를 추천한다.
+ * - 태그 → 스터디 id, 지역 → 스터디 id 목록을 메모리에 미리 만들어 두고, 요청마다 교집합만 구한다.
+ * - 계정의 관심 태그와 지역도 캐시하고, 설정에서 바뀌면 지운다. 캐시한 값은 INTERESTS_TTL이 지나면 다시 조회한다.
+ * 관심 태그를 가진 스터디 중에서 관심 지역에 있는 스터디를 찾는다. (한쪽이 비어 있다면 다른 쪽만 사용한다)
+ * 겹치는 태그와 지역이 많은 스터디, 그 다음으로 최근에 만든 스터디가 먼저 나온다.
+ * */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudyRecommendationService {
+
+    static final int RECOMMENDATIONS = 9;
+
+    static final int MAX_CACHED_ACCOUNTS = 10_000;
+
+    static final Duration INTERESTS_TTL = Duration.ofMinutes(10);
+
+    private final StudyRepository studyRepository;
+    private final AccountRepository accountRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Set<Long>> studiesByTag = new HashMap<>();
+    private final Map<Long, Set<Long>> studiesByZone = new HashMap<>();
+
+    // 같은 계정의 조회(get)와 삭제(invalidate)는 차례로 실행되므로, 관심 태그가 바뀌기 전에 조회한 값은 바뀐 다음에 지워진다.
+    // 이벤트를 놓친 경우(다른 서버에서 바꾼 경우 등)에도 INTERESTS_TTL이 지나면 다시 조회한다.
+    private final Cache<Long, Interests> interestsByAccount = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_ACCOUNTS)
+            .expireAfterWrite(INTERESTS_TTL)
+            .build();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, Set<Long>> byTag = group(studyRepository.findRecruitingStudyTags());
+        Map<Long, Set<Long>> byZone = group(studyRepository.findRecruitingStudyZones());
+
+        lock.writeLock().lock();
+        try {
+            studiesByTag.clear();
+            studiesByTag.putAll(byTag);
+            studiesByZone.clear();
+            studiesByZone.putAll(byZone);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("indexed recruiting studies for {} tags and {} zones", byTag.size(), byZone.size());
+    }
+
+    // 스터디를 만들거나 바꾸거나 지운 트랜잭션이 커밋된 다음에 추천 대상인지 다시 확인한다.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudyChanged(StudyChangedEvent event) {
+        refresh(event.getStudyId());
+    }
+
+    // 스터디의 공개, 모집, 종료 여부나 태그, 지역이 바뀌었을 때 호출한다.
+    public void refresh(Long studyId) {
+        Study study = studyRepository.findWithTagsAndZonesById(studyId);
+
+        lock.writeLock().lock();
+        try {
+            studiesByTag.values().forEach(studyIds -> studyIds.remove(studyId));
+            studiesByZone.values().forEach(studyIds -> studyIds.remove(studyId));
+
+            if (study != null && study.isPublished() && study.isRecruiting() && !study.isClosed()) {
+                study.getTags().forEach(tag -> studiesByTag.computeIfAbsent(tag.getId(), id -> new HashSet<>()).add(studyId));
+                study.getZones().forEach(zone -> studiesByZone.computeIfAbsent(zone.getId(), id -> new HashSet<>()).add(studyId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountInterestsChanged(AccountInterestsChangedEvent event) {
+        interestsByAccount.invalidate(event.getAccountId());
+    }
+
+    public List<Study> recommend(Account account) {
+        Interests interests = interestsOf(account.getId());
+        if (interests.isEmpty()) {
+            return List.of();
+        }
+
+        // 스터디 id → 겹치는 태그와 지역 수
+        Map<Long, Integer> matches;
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> byTags = count(studiesByTag, interests.tagIds);
+            Map<Long, Integer> byZones = count(studiesByZone, interests.zoneIds);
+            if (interests.tagIds.isEmpty()) {
+                matches = byZones;
+            } else if (interests.zoneIds.isEmpty()) {
+                matches = byTags;
+            } else {
+                matches = new HashMap<>();
+                byTags.forEach((studyId, count) -> {
+                    Integer zoneCount = byZones.get(studyId);
+                    if (zoneCount != null) {
+                        matches.put(studyId, count + zoneCount);
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> studyIds = matches.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed()))
+                .limit(RECOMMENDATIONS)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (studyIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Study> studies = studyRepository.findWithTagsAndZonesByIdIn(studyIds).stream()
+                .collect(Collectors.toMap(Study::getId, Function.identity()));
+        return studyIds.stream().map(studies::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private Interests interestsOf(Long accountId) {
+        return interestsByAccount.get(accountId, id -> new Interests(
+                new HashSet<>(accountRepository.findTagIds(id)),
+                new HashSet<>(accountRepository.findZoneIds(id))));
+    }
+
+    private static Map<Long, Integer> count(Map<Long, Set<Long>> postings, Set<Long> keys) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Long key : keys) {
+            Set<Long> studyIds = postings.get(key);
+            if (studyIds != null) {
+                studyIds.forEach(studyId -> counts.merge(studyId, 1, Integer::sum));
+            }
+        }
+        return counts;
+    }
+
+    private static Map<Long, Set<Long>> group(List<StudyRepository.StudyLink> links) {
+        Map<Long, Set<Long>> grouped = new HashMap<>();
+        links.forEach(link -> grouped.computeIfAbsent(link.getTargetId(), id -> new HashSet<>()).add(link.getStudyId()));
+        return grouped;
+    }
+
+    // 계정의 관심 태그와 지역 id
+    private static class Interests {
+
+        private final Set<Long> tagIds;
+
+        private final Set<Long> zoneIds;
+
+        Interests(Set<Long> tagIds, Set<Long> zoneIds) {
+            this.tagIds = tagIds;
+            this.zoneIds = zoneIds;
+        }
+
+        boolean isEmpty() {
+            return tagIds.isEmpty() && zoneIds.isEmpty();
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.studyolle.search;
+
+import com.studyolle.account.CurrentAccount;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Controller
+@RequiredArgsConstructor
+public class SearchController {
+
+    static final int PAGE_SIZE = 9;
+
+    private final StudySearchService studySearchService;
+
+    @GetMapping("/search/study")
+    public String searchStudy(@CurrentAccount Account account,
+                              @RequestParam(required = false) String keyword,
+                              @RequestParam(required = false) String tag,
+                              @RequestParam(required = false) Long zone,
+                              @PageableDefault(size = PAGE_SIZE) Pageable pageable, Model model) {
+        if (account != null) {
+            model.addAttribute(account);
+        }
+
+        Page<Study> studyPage = studySearchService.search(keyword, tag, zone, pageable);
+        model.addAttribute("studyPage", studyPage);
+        model.addAttribute("keyword", keyword);
+        model.addAttribute("tag", tag);
+        model.addAttribute("zone", zone);
+        return "search";
+    }
+
+    // 스터디 화면의 태그를 클릭하면 그 태그를 가진 스터디를 보여준다.
+    @GetMapping("/search/tag/{title}")
+    public String searchTag(@CurrentAccount Account account, @PathVariable String title,
+                            @PageableDefault(size = PAGE_SIZE) Pageable pageable, Model model) {
+        return searchStudy(account, null, title, null, pageable, model);
+    }
+
+    @GetMapping("/search/zone/{id}")
+    public String searchZone(@CurrentAccount Account account, @PathVariable Long id,
+                             @PageableDefault(size = PAGE_SIZE) Pageable pageable, Model model) {
+        return searchStudy(account, null, null, id, pageable, model);
+    }
+
+}
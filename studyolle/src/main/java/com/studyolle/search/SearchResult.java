@@ -0,0 +1,21 @@
+package com.studyolle.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/*
+ * 검색 결과 한 페이지의 스터디 id(순위 순서)와 전체 검색 결과 수
+ * */
+@Getter
+@AllArgsConstructor
+public class SearchResult {
+
+    public static final SearchResult EMPTY = new SearchResult(List.of(), 0);
+
+    private final List<Long> studyIds;
+
+    private final long total;
+
+}
@@ -0,0 +1,64 @@
+package com.studyolle.search;
+
+import com.studyolle.domain.Study;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ * 검색 색인에 넣는 스터디의 내용
+ * */
+@Getter
+@Builder
+public class StudyDocument {
+
+    private final Long studyId;
+
+    private final String title;
+
+    private final String shortDescription;
+
+    private final String fullDescription;
+
+    // 태그 이름
+    @Singular
+    private final List<String> tags;
+
+    @Singular
+    private final List<Zone> zones;
+
+    @Getter
+    public static class Zone {
+
+        private final Long id;
+
+        private final String city;
+
+        private final String localNameOfCity;
+
+        public Zone(Long id, String city, String localNameOfCity) {
+            this.id = id;
+            this.city = city;
+            this.localNameOfCity = localNameOfCity;
+        }
+
+    }
+
+    // study는 tags와 zones를 함께 조회한 것이어야 한다.
+    public static StudyDocument of(Study study) {
+        return StudyDocument.builder()
+                .studyId(study.getId())
+                .title(study.getTitle())
+                .shortDescription(study.getShortDescription())
+                .fullDescription(study.getFullDescription())
+                .tags(study.getTags().stream().map(tag -> tag.getTitle()).collect(Collectors.toList()))
+                .zones(study.getZones().stream()
+                        .map(zone -> new Zone(zone.getId(), zone.getCity(), zone.getLocalNameOfCity()))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+}
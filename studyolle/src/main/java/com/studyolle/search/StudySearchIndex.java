@@ -0,0 +1,371 @@
+package com.studyolle.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * 스터디 검색을 위한 메모리 역색인 (색인어 → 그 색인어를 가진 스터디 목록)
+ * - 스터디는 추가된 순서대로 내부 번호(doc)를 받는다. 그래서 각 색인어의 스터디 목록은 항상 정렬되어 있고,
+ *   여러 색인어의 목록을 병합하는 방식으로 교집합을 빠르게 구할 수 있다.
+ * - 이미 색인된 스터디를 다시 추가하면 이전 문서는 삭제 표시만 하고 새로운 번호로 추가한다.
+ *   삭제 표시된 문서가 COMPACT_MIN_DELETED 개 이상이고 전체의 절반을 넘으면 색인을 압축한다.
+ * - 점수는 필드 가중치(제목, 태그 > 지역, 짧은 소개 > 긴 소개)와 색인어의 희소성(idf)으로 계산한다.
+ * */
+public class StudySearchIndex {
+
+    static final float TITLE_WEIGHT = 3f;
+    static final float TAG_WEIGHT = 3f;
+    static final float ZONE_WEIGHT = 2f;
+    static final float SHORT_DESCRIPTION_WEIGHT = 2f;
+    static final float FULL_DESCRIPTION_WEIGHT = 1f;
+
+    static final int COMPACT_MIN_DELETED = 1024;
+
+    // 검색어로는 만들 수 없는 색인어를 필터로 사용한다.
+    private static final String TAG_FILTER = "\u0000tag:";
+    private static final String ZONE_FILTER = "\u0000zone:";
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    // doc → 스터디 id
+    private long[] studyIds = new long[1024];
+
+    private int documentCount;
+
+    // 스터디 id → 현재 doc
+    private final Map<Long, Integer> documentOf = new HashMap<>();
+
+    private final BitSet deleted = new BitSet();
+
+    private int deletedCount;
+
+    public void add(StudyDocument document) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, Tokenizer.tokenizeForIndex(document.getTitle()), TITLE_WEIGHT);
+        addTerms(terms, Tokenizer.tokenizeForIndex(document.getShortDescription()), SHORT_DESCRIPTION_WEIGHT);
+        addTerms(terms, Tokenizer.tokenizeHtmlForIndex(document.getFullDescription()), FULL_DESCRIPTION_WEIGHT);
+        for (String tag : document.getTags()) {
+            addTerms(terms, Tokenizer.tokenizeForIndex(tag), TAG_WEIGHT);
+            terms.putIfAbsent(tagFilter(tag), 0f);
+        }
+        for (StudyDocument.Zone zone : document.getZones()) {
+            addTerms(terms, Tokenizer.tokenizeForIndex(zone.getCity() + " " + zone.getLocalNameOfCity()), ZONE_WEIGHT);
+            terms.putIfAbsent(zoneFilter(zone.getId()), 0f);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = documentOf.get(document.getStudyId());
+            if (previous != null) {
+                deleted.set(previous);
+                deletedCount++;
+            }
+
+            int doc = documentCount++;
+            if (doc == studyIds.length) {
+                studyIds = Arrays.copyOf(studyIds, doc * 2);
+            }
+            studyIds[doc] = document.getStudyId();
+            documentOf.put(document.getStudyId(), doc);
+
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new Postings()).add(doc, weight));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long studyId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = documentOf.remove(studyId);
+            if (doc != null) {
+                deleted.set(doc);
+                deletedCount++;
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * 삭제 표시된 doc을 색인어 목록에서 빼고, 남은 doc에 추가된 순서대로 번호를 다시 매긴다.
+     * 순서가 그대로이므로 색인어 목록은 계속 정렬되어 있다. doc이 하나도 남지 않은 색인어는 지운다.
+     * */
+    private void compactIfNeeded() {
+        if (deletedCount < COMPACT_MIN_DELETED || deletedCount * 2 < documentCount) {
+            return;
+        }
+
+        int[] renumbered = new int[documentCount];
+        int next = 0;
+        for (int doc = 0; doc < documentCount; doc++) {
+            if (deleted.get(doc)) {
+                renumbered[doc] = -1;
+                continue;
+            }
+            renumbered[doc] = next;
+            studyIds[next] = studyIds[doc];
+            documentOf.put(studyIds[next], next);
+            next++;
+        }
+        postings.values().removeIf(list -> list.compact(renumbered) == 0);
+
+        studyIds = Arrays.copyOf(studyIds, Math.max(1024, next * 2));
+        documentCount = next;
+        deleted.clear();
+        deletedCount = 0;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentOf.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * keyword의 모든 색인어를 가진 스터디를 점수가 높은 순서로 page 번째(0부터) 페이지만큼 찾는다.
+     * tag, zoneId가 있다면 그 태그나 지역을 가진 스터디로 한정한다.
+     * keyword와 필터가 모두 없다면 최근에 추가된 스터디부터 보여준다.
+     * */
+    public SearchResult search(String keyword, String tag, Long zoneId, int page, int size) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(keyword));
+        if (tag != null && !tag.isBlank()) {
+            terms.add(tagFilter(tag));
+        }
+        if (zoneId != null) {
+            terms.add(zoneFilter(zoneId));
+        }
+
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty()) {
+                return latest(page, size);
+            }
+
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return SearchResult.EMPTY;
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            return rank(lists, page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SearchResult rank(List<Postings> lists, int page, int size) {
+        // 가장 짧은 목록에서 시작해서 나머지 목록과 차례로 교집합을 구한다.
+        Postings shortest = lists.get(0);
+        int[] candidates = Arrays.copyOf(shortest.docs, shortest.size);
+        float[] scores = new float[shortest.size];
+        float idf = idf(shortest);
+        for (int i = 0; i < shortest.size; i++) {
+            scores[i] = shortest.weights[i] * idf;
+        }
+
+        int count = shortest.size;
+        for (int l = 1; l < lists.size() && count > 0; l++) {
+            Postings list = lists.get(l);
+            float listIdf = idf(list);
+            int matched = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < list.size; i++) {
+                int position = list.advance(from, candidates[i]);
+                if (position < list.size && list.docs[position] == candidates[i]) {
+                    candidates[matched] = candidates[i];
+                    scores[matched] = scores[i] + list.weights[position] * listIdf;
+                    matched++;
+                    from = position + 1;
+                } else {
+                    from = position;
+                }
+            }
+            count = matched;
+        }
+
+        // 점수가 가장 낮은 것이 맨 앞에 오는 힙으로 상위 (page + 1) * size 개만 남긴다.
+        // page는 요청 파라미터로 받으므로 넘치지 않도록 long으로 계산한다.
+        long offset = (long) page * size;
+        int limit = (int) Math.min((page + 1L) * size, count);
+        int[] heap = new int[limit + 1];
+        int heapSize = 0;
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            if (deleted.get(candidates[i])) {
+                continue;
+            }
+            total++;
+            if (heapSize < limit) {
+                heap[heapSize++] = i;
+                siftUp(heap, heapSize - 1, candidates, scores);
+            } else if (isBetter(i, heap[0], candidates, scores)) {
+                heap[0] = i;
+                siftDown(heap, heapSize, candidates, scores);
+            }
+        }
+
+        // 힙에서 가장 낮은 것부터 꺼내서 뒤에서부터 채운다.
+        int[] ranked = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ranked[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, candidates, scores);
+        }
+
+        List<Long> result = new ArrayList<>(size);
+        for (int i = (int) Math.min(offset, ranked.length); i < ranked.length; i++) {
+            result.add(studyIds[candidates[ranked[i]]]);
+        }
+        return new SearchResult(result, total);
+    }
+
+    // 점수가 같다면 최근에 추가된 스터디가 앞선다.
+    private static boolean isBetter(int a, int b, int[] candidates, float[] scores) {
+        return scores[a] != scores[b] ? scores[a] > scores[b] : candidates[a] > candidates[b];
+    }
+
+    private static void siftUp(int[] heap, int index, int[] candidates, float[] scores) {
+        int value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isBetter(heap[parent], value, candidates, scores)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(int[] heap, int size, int[] candidates, float[] scores) {
+        if (size == 0) {
+            return;
+        }
+        int value = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isBetter(heap[child], heap[child + 1], candidates, scores)) {
+                child++;
+            }
+            if (!isBetter(value, heap[child], candidates, scores)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    private SearchResult latest(int page, int size) {
+        long skip = (long) page * size;
+        if (skip >= documentOf.size()) {
+            return new SearchResult(List.of(), documentOf.size());
+        }
+        List<Long> result = new ArrayList<>(size);
+        for (int doc = documentCount - 1; doc >= 0 && result.size() < size; doc--) {
+            if (deleted.get(doc)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(studyIds[doc]);
+        }
+        return new SearchResult(result, documentOf.size());
+    }
+
+    private float idf(Postings list) {
+        return (float) Math.log(1 + (double) documentCount / list.size);
+    }
+
+    private static void addTerms(Map<String, Float> terms, List<String> tokens, float weight) {
+        tokens.forEach(token -> terms.merge(token, weight, Float::sum));
+    }
+
+    private static String tagFilter(String tag) {
+        return TAG_FILTER + tag.toLowerCase(Locale.ROOT);
+    }
+
+    private static String zoneFilter(Long zoneId) {
+        return ZONE_FILTER + zoneId;
+    }
+
+    // 하나의 색인어를 가진 doc 목록과 각 doc에서의 가중치
+    private static class Postings {
+
+        private int[] docs = new int[4];
+
+        private float[] weights = new float[4];
+
+        private int size;
+
+        void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        // renumbered[doc]이 -1인 doc은 빼고, 나머지는 새 번호로 바꾼다. 남은 doc 수를 반환한다.
+        int compact(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = renumbered[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+
+        // from부터 찾아서 doc 이상인 첫 위치를 반환한다. 가까운 위치는 차례로 보고, 멀다면 이진 탐색한다.
+        int advance(int from, int doc) {
+            int limit = Math.min(from + 8, size);
+            for (int i = from; i < limit; i++) {
+                if (docs[i] >= doc) {
+                    return i;
+                }
+            }
+            if (limit == size) {
+                return size;
+            }
+            int position = Arrays.binarySearch(docs, limit, size, doc);
+            return position >= 0 ? position : -position - 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.studyolle.search;
+
+import com.studyolle.domain.Study;
+import com.studyolle.study.StudyChangedEvent;
+import com.studyolle.study.StudyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * 스터디 검색
+ * 서버가 시작될 때 공개된 스터디로 색인을 만들고, 그 뒤로는 스터디가 바뀔 때마다(StudyChangedEvent) 색인을 고친다.
+ * 검색은 로그인하지 않아도 할 수 있으므로 공개되지 않은 스터디는 색인에 넣지 않는다.
+ * 색인은 서버마다 메모리에 가지고 있으므로 외부 검색 서버가 필요 없다.
+ * */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudySearchService {
+
+    static final int REBUILD_BATCH_SIZE = 500;
+
+    private final StudyRepository studyRepository;
+
+    private final StudySearchIndex index = new StudySearchIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Long afterId = 0L;
+        List<Long> ids;
+        while (!(ids = studyRepository.findPublishedIdsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE))).isEmpty()) {
+            studyRepository.findWithTagsAndZonesByIdIn(ids).forEach(study -> index.add(StudyDocument.of(study)));
+            afterId = ids.get(ids.size() - 1);
+        }
+        log.info("indexed {} studies in {}ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    // 스터디를 만들거나 바꾸거나 지운 트랜잭션이 커밋된 다음에 색인을 고친다.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudyChanged(StudyChangedEvent event) {
+        refresh(event.getStudyId());
+    }
+
+    // 공개된 스터디는 새로운 내용으로 색인하고, 공개되지 않았거나 삭제된 스터디는 색인에서 뺀다.
+    public void refresh(Long studyId) {
+        Study study = studyRepository.findWithTagsAndZonesById(studyId);
+        if (study != null && study.isPublished()) {
+            index.add(StudyDocument.of(study));
+        } else {
+            index.remove(studyId);
+        }
+    }
+
+    public Page<Study> search(String keyword, String tag, Long zoneId, Pageable pageable) {
+        SearchResult result = index.search(keyword, tag, zoneId, pageable.getPageNumber(), pageable.getPageSize());
+        if (result.getStudyIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, result.getTotal());
+        }
+
+        // 순위 순서대로 스터디를 보여준다.
+        Map<Long, Study> studies = studyRepository.findWithTagsAndZonesByIdIn(result.getStudyIds()).stream()
+                .collect(Collectors.toMap(Study::getId, Function.identity()));
+        List<Study> content = result.getStudyIds().stream()
+                .map(studies::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, result.getTotal());
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.studyolle.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/*
+ * 검색어와 스터디 내용을 색인어(term)로 나눈다.
+ * - 한글은 띄어쓰기와 조사 때문에 단어 단위로 나누면 검색이 잘 안되므로 두 글자씩 나눈다. (bigram)
+ *   예) "스프링부트" → "스프", "프링", "링부", "부트"
+ * - 색인할 때는 띄어쓰기로 나뉜 한글 사이의 두 글자도 추가해서, 띄어쓰기 없이 검색해도 찾을 수 있게 한다.
+ *   예) "스프링 부트" → "스프", "프링", "링부", "부트"
+ * - 검색어의 한 글자 단어(예: "책")는 한 글자 그대로 찾으므로, 색인할 때는 한글을 한 글자씩도 추가한다. (unigram)
+ *   예) "책읽기" → "책읽", "읽기", "책", "읽", "기"
+ * - 한글이 아닌 문자(영문, 숫자)는 단어 단위로 나눈다.
+ * */
+public final class Tokenizer {
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>|&[a-zA-Z]+;|&#\\d+;");
+
+    private Tokenizer() {
+    }
+
+    // 검색어를 나눈다.
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    // 색인할 내용을 나눈다.
+    public static List<String> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    private static List<String> tokenize(String text, boolean forIndex) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        int length = lowerCase.length();
+        int start = 0;
+        int previousHangulEnd = -1; // 바로 앞 한글 단어의 끝 (사이에 공백만 있을 때만 유지한다)
+        while (start < length) {
+            char c = lowerCase.charAt(start);
+            if (isHangul(c)) {
+                int end = start;
+                while (end < length && isHangul(lowerCase.charAt(end))) {
+                    end++;
+                }
+                if (forIndex && previousHangulEnd > 0) {
+                    tokens.add("" + lowerCase.charAt(previousHangulEnd - 1) + c);
+                }
+                addBigrams(lowerCase, start, end, tokens);
+                if (forIndex && end - start > 1) {
+                    addUnigrams(lowerCase, start, end, tokens);
+                }
+                previousHangulEnd = end;
+                start = end;
+            } else if (Character.isLetterOrDigit(c)) {
+                previousHangulEnd = -1;
+                int end = start;
+                while (end < length && isWordChar(lowerCase.charAt(end))) {
+                    end++;
+                }
+                tokens.add(lowerCase.substring(start, end));
+                start = end;
+            } else {
+                if (!Character.isWhitespace(c)) {
+                    previousHangulEnd = -1;
+                }
+                start++;
+            }
+        }
+        return tokens;
+    }
+
+    // 스터디의 긴 소개는 에디터로 작성한 HTML이므로 태그를 지우고 나눈다.
+    public static List<String> tokenizeHtmlForIndex(String html) {
+        if (html == null) {
+            return new ArrayList<>();
+        }
+        return tokenizeForIndex(HTML_TAG.matcher(html).replaceAll(" "));
+    }
+
+    private static void addBigrams(String text, int start, int end, List<String> tokens) {
+        if (end - start == 1) {
+            tokens.add(text.substring(start, end));
+            return;
+        }
+        for (int i = start; i < end - 1; i++) {
+            tokens.add(text.substring(i, i + 2));
+        }
+    }
+
+    private static void addUnigrams(String text, int start, int end, List<String> tokens) {
+        for (int i = start; i < end; i++) {
+            tokens.add(text.substring(i, i + 1));
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) && !isHangul(c);
+    }
+
+    // 한글 음절(가-힣)과 호환 자모(ㄱ-ㅎ, ㅏ-ㅣ)
+    private static boolean isHangul(char c) {
+        return (c >= '가' && c <= '힣') || (c >= 'ㄱ' && c <= 'ㆎ');
+    }
+
+}
@@ -1,31 +1,35 @@
 package com.studyolle.settings;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyolle.account.AccountMapper;
 import com.studyolle.account.AccountService;
 import com.studyolle.account.CurrentAccount;
+import com.studyolle.account.UserAccount;
 import com.studyolle.domain.Account;
-import com.studyolle.domain.Tag;
 import com.studyolle.domain.Zone;
 import com.studyolle.settings.form.ZoneForm;
 import com.studyolle.settings.form.*;
 import com.studyolle.settings.validator.NicknameValidator;
 import com.studyolle.settings.validator.PasswordFormValidator;
-import com.studyolle.tag.TagRepository;
+import com.studyolle.tag.TagService;
 import com.studyolle.zone.ZoneRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.studyolle.settings.SettingsController.ROOT;
@@ -44,13 +48,15 @@ public class SettingsController {
     static final String ACCOUNT = "/account";
     static final String TAGS = "/tags";
     static final String ZONES = "/zones";
+    static final String WHITELIST = "/whitelist";
+    static final String INTERESTS = "/interests";
 
     private final AccountService accountService;
-    private final ModelMapper modelMapper;
+    private final AccountMapper accountMapper;
     private final NicknameValidator nicknameValidator;
-    private final TagRepository tagRepository;
+    private final TagService tagService;
     private final ZoneRepository zoneRepository;
-    private final ObjectMapper objectMapper;
+    private final WhitelistService whitelistService;
 
     @InitBinder("passwordForm")
     public void passwordFormInitBinder(WebDataBinder webDataBinder) {
@@ -65,7 +71,7 @@ public class SettingsController {
     @GetMapping(PROFILE)
     public String updateProfileForm(@CurrentAccount Account account, Model model) {
         model.addAttribute(account);
-        model.addAttribute(modelMapper.map(account, Profile.class));
+        model.addAttribute(accountMapper.toProfile(account));
         return SETTINGS + PROFILE;
     }
 
@@ -77,7 +83,16 @@ public class SettingsController {
             return SETTINGS + PROFILE;
         }
 
-        accountService.updateProfile(account, profile);
+        try {
+            accountService.updateProfile(account, profile);
+        } catch (IllegalArgumentException e) {
+            // 형식이 잘못되었거나, 지원하지 않거나, 너무 큰 프로필 이미지 (ImageService.store)
+            errors.rejectValue("profileImage", "wrong.value", e.getMessage());
+            profile.setProfileImage(account.getProfileImage());
+            model.addAttribute(account);
+            return SETTINGS + PROFILE;
+        }
+
         attributes.addFlashAttribute("message", "프로필을 수정했습니다.");
         return "redirect:/" + SETTINGS + PROFILE;
     }
@@ -105,7 +120,7 @@ public class SettingsController {
     @GetMapping(NOTIFICATIONS)
     public String updateNotificationsForm(@CurrentAccount Account account, Model model) {
         model.addAttribute(account);
-        model.addAttribute(modelMapper.map(account, Notifications.class));
+        model.addAttribute(accountMapper.toNotifications(account));
         return SETTINGS + NOTIFICATIONS;
     }
 
@@ -126,38 +141,39 @@ public class SettingsController {
     public String updateTags(@CurrentAccount Account account, Model model) throws JsonProcessingException {
         model.addAttribute(account);
 
-        Set<Tag> tags = accountService.getTags(account);
-        model.addAttribute("tags", tags.stream().map(Tag::getTitle).collect(Collectors.toList()));
+        model.addAttribute("tags", accountService.getTagTitles(account));
 
-        List<String> allTags = tagRepository.findAll().stream().map(Tag::getTitle).collect(Collectors.toList());
-        model.addAttribute("whitelist", objectMapper.writeValueAsString(allTags));
+        // 화이트리스트는 페이지에 넣지 않고, 브라우저가 캐시할 수 있도록 버전이 붙은 주소로 따로 받아간다.
+        Whitelist whitelist = whitelistService.getTagWhitelist();
+        model.addAttribute("whitelist", ROOT + SETTINGS + TAGS + WHITELIST + "?v=" + whitelist.getVersion());
 
         return SETTINGS + TAGS;
     }
 
-    @PostMapping(TAGS + "/add")
+    @GetMapping(TAGS + WHITELIST)
     @ResponseBody
-    public ResponseEntity addTag(@CurrentAccount Account account, @RequestBody TagForm tagForm) {
-        String title = tagForm.getTagTitle();
-        Tag tag = tagRepository.findByTitle(title);
-        if (tag == null) {
-            tag = tagRepository.save(Tag.builder().title(title).build());
-        }
+    public ResponseEntity<String> tagWhitelist(String v, WebRequest webRequest) throws JsonProcessingException {
+        return whitelistResponse(whitelistService.getTagWhitelist(), v, webRequest);
+    }
 
-        accountService.addTag(account, tag);
+    // 관심 태그, 지역을 바꿀 때는 계정을 조회하지 않고 세션의 UserAccount에 있는 id만 사용한다.
+    @PostMapping(TAGS + "/add")
+    @ResponseBody
+    public ResponseEntity addTag(@AuthenticationPrincipal UserAccount userAccount, @RequestBody TagForm tagForm) {
+        Long tagId = tagService.getOrCreateTagId(tagForm.getTagTitle());
+        accountService.addTag(userAccount.getId(), tagId);
         return ResponseEntity.ok().build();
     }
 
     @PostMapping(TAGS + "/remove")
     @ResponseBody
-    public ResponseEntity removeTag(@CurrentAccount Account account, @RequestBody TagForm tagForm) {
-        String title = tagForm.getTagTitle();
-        Tag tag = tagRepository.findByTitle(title);
-        if (tag == null) {
+    public ResponseEntity removeTag(@AuthenticationPrincipal UserAccount userAccount, @RequestBody TagForm tagForm) {
+        Long tagId = tagService.findTagId(tagForm.getTagTitle());
+        if (tagId == null) {
             return ResponseEntity.badRequest().build();
         }
 
-        accountService.removeTag(account, tag);
+        accountService.removeTag(userAccount.getId(), tagId);
         return ResponseEntity.ok().build();
     }
 
@@ -165,43 +181,62 @@ public class SettingsController {
     public String updateZonesForm(@CurrentAccount Account account, Model model) throws JsonProcessingException {
         model.addAttribute(account);
 
-        Set<Zone> zones = accountService.getZones(account);
+        List<Zone> zones = accountService.getZones(account);
         model.addAttribute("zones", zones.stream().map(Zone::toString).collect(Collectors.toList()));
 
-        List<String> allZones = zoneRepository.findAll().stream().map(Zone::toString).collect(Collectors.toList());
-        model.addAttribute("whitelist", objectMapper.writeValueAsString(allZones));
+        Whitelist whitelist = whitelistService.getZoneWhitelist();
+        model.addAttribute("whitelist", ROOT + SETTINGS + ZONES + WHITELIST + "?v=" + whitelist.getVersion());
 
         return SETTINGS + ZONES;
     }
 
+    @GetMapping(ZONES + WHITELIST)
+    @ResponseBody
+    public ResponseEntity<String> zoneWhitelist(String v, WebRequest webRequest) throws JsonProcessingException {
+        return whitelistResponse(whitelistService.getZoneWhitelist(), v, webRequest);
+    }
+
     @PostMapping(ZONES + "/add")
     @ResponseBody
-    public ResponseEntity addZone(@CurrentAccount Account account, @RequestBody ZoneForm zoneForm) {
+    public ResponseEntity addZone(@AuthenticationPrincipal UserAccount userAccount, @RequestBody ZoneForm zoneForm) {
         Zone zone = zoneRepository.findByCityAndProvince(zoneForm.getCityName(), zoneForm.getProvinceName());
         if (zone == null) {
             return ResponseEntity.badRequest().build();
         }
 
-        accountService.addZone(account, zone);
+        accountService.addZone(userAccount.getId(), zone.getId());
         return ResponseEntity.ok().build();
     }
 
     @PostMapping(ZONES + "/remove")
     @ResponseBody
-    public ResponseEntity removeZone(@CurrentAccount Account account, @RequestBody ZoneForm zoneForm) {
+    public ResponseEntity removeZone(@AuthenticationPrincipal UserAccount userAccount, @RequestBody ZoneForm zoneForm) {
         Zone zone = zoneRepository.findByCityAndProvince(zoneForm.getCityName(), zoneForm.getProvinceName());
         if (zone == null) {
             return ResponseEntity.badRequest().build();
         }
 
-        accountService.removeZone(account, zone);
+        accountService.removeZone(userAccount.getId(), zone.getId());
+        return ResponseEntity.ok().build();
+    }
+
+    // 태그, 지역 화면에서 모아서 보낸 변경을 한 번에 반영한다. 없는 지역이 있으면 아무것도 반영하지 않는다.
+    @PostMapping(INTERESTS)
+    @ResponseBody
+    public ResponseEntity updateInterests(@AuthenticationPrincipal UserAccount userAccount,
+                                          @Valid @RequestBody InterestsForm interestsForm) {
+        try {
+            accountService.updateInterests(userAccount.getId(), interestsForm);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         return ResponseEntity.ok().build();
     }
 
     @GetMapping(ACCOUNT)
     public String updateAccountForm(@CurrentAccount Account account, Model model) {
         model.addAttribute(account);
-        model.addAttribute(modelMapper.map(account, NicknameForm.class));
+        model.addAttribute(accountMapper.toNicknameForm(account));
         return SETTINGS + ACCOUNT;
     }
 
@@ -218,4 +253,24 @@ public class SettingsController {
         return "redirect:/" + SETTINGS + ACCOUNT;
     }
 
+    /*
+     * 화이트리스트가 바뀌면 버전(v)도 바뀌므로, 현재 버전을 요청했다면 오래 캐시해도 된다.
+     * 버전 없이 요청했다면 ETag로 바뀌었는지만 확인하도록 한다.
+     * */
+    private ResponseEntity<String> whitelistResponse(Whitelist whitelist, String version, WebRequest webRequest) {
+        CacheControl cacheControl = whitelist.getVersion().equals(version)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
+
+        if (webRequest.checkNotModified(whitelist.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(whitelist.getETag()).cacheControl(cacheControl).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(whitelist.getETag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(whitelist.getJson());
+    }
+
 }
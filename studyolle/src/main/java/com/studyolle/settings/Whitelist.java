@@ -0,0 +1,60 @@
+package com.studyolle.settings;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Tagify 자동 완성에 사용하는 화이트리스트
+ * JSON 문자열과 그 내용으로 만든 버전(ETag)을 미리 계산해 두고 여러 요청이 같이 사용한다.
+ * */
+@Getter
+public class Whitelist {
+
+    private final String json;
+
+    private final String version;
+
+    // 이미 있는 값인지 확인하는 데 사용한다.
+    @Getter(AccessLevel.NONE)
+    private final Set<String> values;
+
+    private Whitelist(String json, Set<String> values) {
+        this.json = json;
+        this.version = DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8));
+        this.values = values;
+    }
+
+    public static Whitelist of(List<String> values, ObjectMapper objectMapper) throws JsonProcessingException {
+        return new Whitelist(objectMapper.writeValueAsString(values), new HashSet<>(values));
+    }
+
+    public boolean contains(String value) {
+        return values.contains(value);
+    }
+
+    // 전체 목록을 다시 직렬화하지 않고, JSON 배열 끝에 값을 하나 이어 붙인 새 화이트리스트를 만든다.
+    // 이미 있는 값이라면 이 화이트리스트를 그대로 반환한다.
+    public Whitelist with(String value, ObjectMapper objectMapper) throws JsonProcessingException {
+        if (contains(value)) {
+            return this;
+        }
+        String head = json.substring(0, json.length() - 1);
+        String separator = head.equals("[") ? "" : ",";
+        Set<String> newValues = new HashSet<>(values);
+        newValues.add(value);
+        return new Whitelist(head + separator + objectMapper.writeValueAsString(value) + "]", newValues);
+    }
+
+    public String getETag() {
+        return "\"" + version + "\"";
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.studyolle.settings;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyolle.domain.Tag;
+import com.studyolle.domain.Zone;
+import com.studyolle.tag.TagCreatedEvent;
+import com.studyolle.tag.TagRepository;
+import com.studyolle.zone.ZoneRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.stream.Collectors;
+
+/*
+ * 태그와 지역 화이트리스트를 메모리에 캐시한다.
+ * - 지역은 zones_kr.csv에서 한 번 읽은 뒤로 바뀌지 않으므로 처음 한 번만 만든다.
+ * - 태그는 새로운 태그가 만들어질 때 기존 목록에 이어 붙인다.
+ *   태그가 커밋된 다음, 이벤트를 처리하기 전에 화이트리스트를 만들었다면 이미 들어있으므로 다시 붙이지 않는다.
+ * */
+@Service
+@RequiredArgsConstructor
+public class WhitelistService {
+
+    private final TagRepository tagRepository;
+    private final ZoneRepository zoneRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Whitelist tagWhitelist;
+    private volatile Whitelist zoneWhitelist;
+
+    public Whitelist getTagWhitelist() throws JsonProcessingException {
+        Whitelist whitelist = tagWhitelist;
+        if (whitelist == null) {
+            synchronized (this) {
+                if (tagWhitelist == null) {
+                    tagWhitelist = Whitelist.of(tagRepository.findAll().stream()
+                            .map(Tag::getTitle).collect(Collectors.toList()), objectMapper);
+                }
+                whitelist = tagWhitelist;
+            }
+        }
+        return whitelist;
+    }
+
+    public Whitelist getZoneWhitelist() throws JsonProcessingException {
+        Whitelist whitelist = zoneWhitelist;
+        if (whitelist == null) {
+            synchronized (this) {
+                if (zoneWhitelist == null) {
+                    zoneWhitelist = Whitelist.of(zoneRepository.findAll().stream()
+                            .map(Zone::toString).collect(Collectors.toList()), objectMapper);
+                }
+                whitelist = zoneWhitelist;
+            }
+        }
+        return whitelist;
+    }
+
+    // 태그를 만든 트랜잭션이 커밋된 다음에 화이트리스트에 추가한다.
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTagCreated(TagCreatedEvent event) throws JsonProcessingException {
+        if (tagWhitelist != null) {
+            tagWhitelist = tagWhitelist.with(event.getTitle(), objectMapper);
+        }
+    }
+
+    // 지역 데이터를 새로 읽어온 경우에 호출한다.
+    public synchronized void evictZoneWhitelist() {
+        zoneWhitelist = null;
+    }
+
+}
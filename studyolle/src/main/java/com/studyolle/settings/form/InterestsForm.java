@@ -0,0 +1,47 @@
+package com.studyolle.settings.form;
+
+import lombok.Data;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 관심 태그, 지역 화면(Tagify)에서 모아서 보내는 변경 목록
+ * 받은 순서대로 한 트랜잭션에서 반영한다. (같은 태그를 추가했다가 지운 경우에도 순서가 유지된다)
+ * */
+@Data
+public class InterestsForm {
+
+    @Valid
+    @NotNull
+    @Size(max = 100)
+    private List<Change> changes = new ArrayList<>();
+
+    public enum Type {
+        TAG, ZONE
+    }
+
+    public enum Action {
+        ADD, REMOVE
+    }
+
+    @Data
+    public static class Change {
+
+        @NotNull
+        private Type type;
+
+        @NotNull
+        private Action action;
+
+        // 태그 이름 또는 지역 이름 (ZoneForm.zoneName과 같은 형식)
+        @NotBlank
+        private String value;
+
+    }
+
+}
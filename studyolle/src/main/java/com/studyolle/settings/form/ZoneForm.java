@@ -3,11 +3,20 @@ package com.studyolle.settings.form;
 import com.studyolle.domain.Zone;
 import lombok.Data;
 
+import java.util.regex.Pattern;
+
 @Data
 public class ZoneForm {
 
+    // Zone.toString()과 같은 형식: 도시 이름(한글 이름)/주 이름
+    private static final Pattern ZONE_NAME = Pattern.compile("^[^(/]+\\([^)]*\\)/.+$");
+
     private String zoneName;
 
+    public static boolean isZoneName(String value) {
+        return value != null && ZONE_NAME.matcher(value).matches();
+    }
+
     public String getCityName() {
         return zoneName.substring(0, zoneName.indexOf("("));
     }
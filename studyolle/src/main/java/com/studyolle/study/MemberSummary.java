@@ -0,0 +1,40 @@
+package com.studyolle.study;
+
+import lombok.Getter;
+
+/*
+ * 스터디 구성원 목록에 표시하는 값만 가진 프로젝션
+ * Account 엔티티를 조회하지 않고 JPQL 생성자 표현식으로 필요한 컬럼만 가져온다.
+ * */
+@Getter
+public class MemberSummary {
+
+    private final Long id;
+
+    private final String nickname;
+
+    private final String bio;
+
+    // 프로필 이미지의 참조 (/images/{hash})
+    private final String profileImage;
+
+    // 스터디 관리자 여부
+    private final boolean manager;
+
+    public MemberSummary(Long id, String nickname, String bio, String profileImage) {
+        this(id, nickname, bio, profileImage, false);
+    }
+
+    private MemberSummary(Long id, String nickname, String bio, String profileImage, boolean manager) {
+        this.id = id;
+        this.nickname = nickname;
+        this.bio = bio;
+        this.profileImage = profileImage;
+        this.manager = manager;
+    }
+
+    public MemberSummary asManager() {
+        return new MemberSummary(id, nickname, bio, profileImage, true);
+    }
+
+}
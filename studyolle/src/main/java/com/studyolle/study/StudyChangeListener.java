@@ -0,0 +1,105 @@
+package com.studyolle.study;
+
+import com.studyolle.domain.Study;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+
+/*
+ * 하이버네이트가 스터디를 INSERT, UPDATE, DELETE 하거나 스터디의 태그, 지역을 바꿀 때 StudyChangedEvent를 발생시킨다.
+ * 스터디를 공개, 종료하거나 소개를 바꾸는 모든 코드가 이벤트를 직접 발생시키지 않아도 검색 색인과 추천 색인이 따라간다.
+ * 이벤트는 flush 할 때 발생하므로 받는 쪽은 @TransactionalEventListener로 커밋된 다음에 처리한다.
+ * JPQL, JDBC로 직접 바꾼 스터디는 알 수 없다.
+ * */
+@Component
+public class StudyChangeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public StudyChangeListener(EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        studyChanged(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        studyChanged(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        studyChanged(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        collectionChanged(event);
+    }
+
+    private void studyChanged(Object entity, Serializable id) {
+        if (entity instanceof Study) {
+            eventPublisher.publishEvent(new StudyChangedEvent((Long) id));
+        }
+    }
+
+    // 회원, 관리자 컬렉션은 색인에 사용하지 않는다. (새로 만든 컬렉션은 아직 role이 없으므로 스터디의 필드와 비교한다)
+    private void collectionChanged(AbstractCollectionEvent event) {
+        Object owner = event.getAffectedOwnerOrNull();
+        if (owner instanceof Study) {
+            Study study = (Study) owner;
+            if (event.getCollection() == study.getTags() || event.getCollection() == study.getZones()) {
+                studyChanged(study, event.getAffectedOwnerIdOrNull());
+            }
+        }
+    }
+
+    // 커밋된 다음이 아니라 flush 할 때 이벤트를 발생시키므로 하이버네이트의 커밋 후 처리는 필요 없다.
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+}
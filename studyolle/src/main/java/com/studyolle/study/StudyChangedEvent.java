@@ -0,0 +1,13 @@
+package com.studyolle.study;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 스터디를 만들거나, 바꾸거나(공개, 모집, 종료, 소개, 태그, 지역 등), 지웠을 때 발생하는 이벤트 (StudyChangeListener)
+@Getter
+@RequiredArgsConstructor
+public class StudyChangedEvent {
+
+    private final Long studyId;
+
+}
@@ -4,17 +4,15 @@ import com.studyolle.account.CurrentAccount;
 import com.studyolle.domain.Account;
 import com.studyolle.domain.Study;
 import com.studyolle.study.form.StudyForm;
-import com.studyolle.study.validator.StudyFormValidator;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
-import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import javax.validation.Valid;
 import java.net.URLEncoder;
@@ -26,13 +24,7 @@ public class StudyController {
 
     private final StudyRepository studyRepository;
     private final StudyService studyService;
-    private final ModelMapper modelMapper;
-    private final StudyFormValidator studyFormValidator;
-
-    @InitBinder("studyForm")
-    public void studyFormInitBinder(WebDataBinder webDataBinder){
-        webDataBinder.addValidators(studyFormValidator);
-    }
+    private final StudyMapper studyMapper;
 
     @GetMapping("/new-study")
     public String newStudyForm(@CurrentAccount Account account, Model model){
@@ -50,22 +42,48 @@ public class StudyController {
             return "study/form";
         }
 
-        Study newStudy = studyService.createNewStudy(modelMapper.map(studyForm, Study.class), account);
+        Study newStudy;
+        try {
+            newStudy = studyService.createNewStudy(studyMapper.toStudy(studyForm), account);
+        } catch (StudyPathAlreadyExistsException e) {
+            errors.rejectValue("path", "wrong.path", "해당 스터디의 경로 값을 사용할 수 없습니다.");
+            model.addAttribute(account);
+            return "study/form";
+        }
         return "redirect:/study/" + URLEncoder.encode(newStudy.getPath(), StandardCharsets.UTF_8); // 새롭게 생성한 스터디의 정보를 표시하는 뷰를 보여준다.
     }
 
     @GetMapping("/study/{path}")
     public String viewStudy(@CurrentAccount Account account, @PathVariable String path, Model model){
+        StudySummary study = studyService.getStudySummary(path);
         model.addAttribute(account);
-        model.addAttribute(studyRepository.findByPath(path));
+        model.addAttribute("study", study);
+        model.addAttribute("membership", studyService.getMembership(study, account));
 
         return "study/view";
     }
 
+    /*
+     * 구성원 목록은 회원이 많을 수 있으므로 필요한 값만 페이지 단위로 조회한다.
+     * 관리자는 첫 페이지에만 표시하고, 다음 페이지는 ?after={이전 페이지의 마지막 회원 id}로 요청한다.
+     * */
     @GetMapping("/study/{path}/members")
-    public String viewStudyMembers(@CurrentAccount Account account, @PathVariable String path, Model model) {
+    public String viewStudyMembers(@CurrentAccount Account account, @PathVariable String path,
+                                   @RequestParam(required = false) Long after, Model model) {
+        StudySummary study = studyService.getStudySummary(path);
         model.addAttribute(account);
-        model.addAttribute(studyRepository.findByPath(path));
+        model.addAttribute("study", study);
+        model.addAttribute("membership", studyService.getMembership(study, account));
+
+        if (after == null) {
+            model.addAttribute("managers", studyService.getManagers(study));
+        }
+
+        Slice<MemberSummary> members = studyService.getMembers(study, after);
+        model.addAttribute("members", members.getContent());
+        if (members.hasNext()) {
+            model.addAttribute("nextAfter", members.getContent().get(members.getNumberOfElements() - 1).getId());
+        }
         return "study/members";
     }
 
@@ -0,0 +1,13 @@
+package com.studyolle.study;
+
+import com.studyolle.config.MappingConfig;
+import com.studyolle.domain.Study;
+import com.studyolle.study.form.StudyForm;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class)
+public interface StudyMapper {
+
+    Study toStudy(StudyForm studyForm);
+
+}
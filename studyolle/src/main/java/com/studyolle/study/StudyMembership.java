@@ -0,0 +1,24 @@
+package com.studyolle.study;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * 현재 사용자와 스터디의 관계
+ * 스터디 화면의 가입/탈퇴/모임 만들기/설정 버튼을 보여줄지 결정할 때 사용한다.
+ * */
+@Getter
+@AllArgsConstructor
+public class StudyMembership {
+
+    // 로그인 하지 않은 사용자
+    public static final StudyMembership NONE = new StudyMembership(false, false, false);
+
+    private final boolean manager;
+
+    private final boolean member;
+
+    // 공개되었고 인원을 모집 중이며 아직 관리자나 회원이 아닌 경우에 가입할 수 있다.
+    private final boolean joinable;
+
+}
@@ -0,0 +1,13 @@
+package com.studyolle.study;
+
+/*
+ * 같은 경로의 스터디가 이미 있다. (study 테이블의 ux_study_path 제약 조건)
+ * 경로를 미리 조회해서 확인하지 않고 INSERT가 실패하면 던진다. 동시에 같은 경로로 개설해도 하나만 성공한다.
+ * */
+public class StudyPathAlreadyExistsException extends RuntimeException {
+
+    public StudyPathAlreadyExistsException(String path, Throwable cause) {
+        super("study path already exists: " + path, cause);
+    }
+
+}
@@ -1,15 +1,75 @@
 package com.studyolle.study;
 
 import com.studyolle.domain.Study;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 @Transactional(readOnly = true)
 public interface StudyRepository extends JpaRepository<Study, Long> {
 
-    boolean existsByPath(String path);
-
     @EntityGraph(value = "Study.withAll", type = EntityGraph.EntityGraphType.LOAD)
     Study findByPath(String path);
+
+    // 구성원 목록처럼 관리자와 회원 컬렉션이 필요 없는 화면에서 사용한다.
+    @EntityGraph(value = "Study.withTagsAndZones", type = EntityGraph.EntityGraphType.LOAD)
+    Study findStudyWithTagsAndZonesByPath(String path);
+
+    /*
+     * 현재 사용자가 스터디의 관리자인지, 회원인지를 한 번의 쿼리로 확인한다.
+     * 조인 테이블의 기본 키(study_id, 계정 id)를 사용하므로 회원이 많아도 컬렉션을 읽지 않는다.
+     * */
+    @Query(value = "select exists(select 1 from study_managers where study_id = :studyId and managers_id = :accountId) as manager, " +
+            "exists(select 1 from study_members where study_id = :studyId and members_id = :accountId) as member",
+            nativeQuery = true)
+    MembershipFlags findMembership(@Param("studyId") Long studyId, @Param("accountId") Long accountId);
+
+    interface MembershipFlags {
+        boolean getManager();
+        boolean getMember();
+    }
+
+    // 검색 색인을 만들 때 공개된 스터디를 id 순서로 나눠서 읽는다.
+    @Query("select s.id from Study s where s.published = true and s.id > :afterId order by s.id")
+    List<Long> findPublishedIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(value = "Study.withTagsAndZones", type = EntityGraph.EntityGraphType.LOAD)
+    List<Study> findWithTagsAndZonesByIdIn(Collection<Long> ids);
+
+    @EntityGraph(value = "Study.withTagsAndZones", type = EntityGraph.EntityGraphType.LOAD)
+    Study findWithTagsAndZonesById(Long id);
+
+    // 추천 색인을 만들 때 사용한다. 공개되었고 인원을 모집 중인 스터디의 태그와 지역
+    @Query("select s.id as studyId, t.id as targetId from Study s join s.tags t " +
+            "where s.published = true and s.recruiting = true and s.closed = false")
+    List<StudyLink> findRecruitingStudyTags();
+
+    @Query("select s.id as studyId, z.id as targetId from Study s join s.zones z " +
+            "where s.published = true and s.recruiting = true and s.closed = false")
+    List<StudyLink> findRecruitingStudyZones();
+
+    interface StudyLink {
+        Long getStudyId();
+        Long getTargetId();
+    }
+
+    @Query("select size(s.members) from Study s where s.id = :studyId")
+    int countMembers(@Param("studyId") Long studyId);
+
+    @Query("select new com.studyolle.study.MemberSummary(m.id, m.nickname, m.bio, m.profileImage) " +
+            "from Study s join s.managers m where s.id = :studyId order by m.id")
+    List<MemberSummary> findManagerSummaries(@Param("studyId") Long studyId);
+
+    // 키셋 페이지네이션: 이전 페이지의 마지막 회원 id(afterId) 다음부터 pageable의 크기만큼 가져온다.
+    @Query("select new com.studyolle.study.MemberSummary(m.id, m.nickname, m.bio, m.profileImage) " +
+            "from Study s join s.members m where s.id = :studyId and m.id > :afterId order by m.id")
+    List<MemberSummary> findMemberSummaries(@Param("studyId") Long studyId, @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
 }
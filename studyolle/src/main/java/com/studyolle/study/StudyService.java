@@ -1,23 +1,115 @@
 package com.studyolle.study;
 
+import com.studyolle.config.CacheConfig;
 import com.studyolle.domain.Account;
 import com.studyolle.domain.Study;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class StudyService {
 
+    static final int MEMBERS_PAGE_SIZE = 20;
+
+    static final String PATH_CONSTRAINT = "ux_study_path";
+
     private final StudyRepository studyRepository;
+    private final MeterRegistry meterRegistry;
+    private final CacheManager cacheManager;
 
+    /*
+     * 스터디와 관리자를 한 번의 flush로 INSERT 한다. 경로가 이미 있으면 ux_study_path 제약 조건 위반으로 알 수 있으므로 미리 조회하지 않는다.
+     * 개설한 다음에는 스터디 화면으로 리다이렉트 되므로, 커밋된 다음에 스터디 요약을 캐시에 넣어서 다시 조회하지 않게 한다.
+     * (새 스터디는 태그, 지역, 회원이 없다)
+     * */
     public Study createNewStudy(Study study, Account account) {
         Study newStudy = studyRepository.save(study);
         newStudy.addManager(account);
+        try {
+            studyRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isPathConflict(e)) {
+                throw new StudyPathAlreadyExistsException(study.getPath(), e);
+            }
+            throw e;
+        }
+
+        // 트랜잭션을 인식하는 캐시라서 커밋된 다음에 넣는다.
+        Cache studySummaries = cacheManager.getCache(CacheConfig.STUDY_SUMMARY);
+        if (studySummaries != null) {
+            studySummaries.put(newStudy.getPath(), StudySummary.of(newStudy, 0));
+        }
+        meterRegistry.counter("study.create").increment();
 
         return newStudy;
     }
 
+    // 제약 조건 이름은 DB마다 대소문자가 다르게 보고된다. (H2: UX_STUDY_PATH_INDEX_..., PostgreSQL: ux_study_path)
+    // ddl-auto=update로 만들어진 DB의 이름(uk_...)은 V5에서 ux_study_path로 바꾼다.
+    private static boolean isPathConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(PATH_CONSTRAINT);
+    }
+
+    // 스터디 화면에 필요한 정보만 조회한다. 관리자와 회원 컬렉션은 읽지 않는다.
+    // 스터디를 바꾸는 메소드는 같은 경로의 캐시를 지워야 한다.
+    @Cacheable(cacheNames = CacheConfig.STUDY_SUMMARY, key = "#path", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public StudySummary getStudySummary(String path) {
+        Study study = studyRepository.findStudyWithTagsAndZonesByPath(path);
+        if (study == null) {
+            return null;
+        }
+        return StudySummary.of(study, studyRepository.countMembers(study.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public StudyMembership getMembership(StudySummary study, Account account) {
+        if (account == null) {
+            return StudyMembership.NONE;
+        }
+
+        StudyRepository.MembershipFlags flags = studyRepository.findMembership(study.getId(), account.getId());
+        boolean joinable = study.isPublished() && study.isRecruiting() && !flags.getMember() && !flags.getManager();
+        return new StudyMembership(flags.getManager(), flags.getMember(), joinable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MemberSummary> getManagers(StudySummary study) {
+        return studyRepository.findManagerSummaries(study.getId()).stream()
+                .map(MemberSummary::asManager)
+                .collect(Collectors.toList());
+    }
+
+    /*
+     * 회원 목록을 id 순서로 MEMBERS_PAGE_SIZE 만큼 가져온다.
+     * 다음 페이지가 있는지 알기 위해 하나를 더 조회하고, 다음 페이지는 마지막 회원의 id 다음부터 조회한다.
+     * */
+    @Transactional(readOnly = true)
+    public Slice<MemberSummary> getMembers(StudySummary study, Long afterId) {
+        List<MemberSummary> members = studyRepository.findMemberSummaries(study.getId(),
+                afterId == null ? 0L : afterId, PageRequest.of(0, MEMBERS_PAGE_SIZE + 1));
+
+        boolean hasNext = members.size() > MEMBERS_PAGE_SIZE;
+        if (hasNext) {
+            members = members.subList(0, MEMBERS_PAGE_SIZE);
+        }
+        return new SliceImpl<>(members, PageRequest.of(0, MEMBERS_PAGE_SIZE), hasNext);
+    }
+
 }
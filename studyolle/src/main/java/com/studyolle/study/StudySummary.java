@@ -0,0 +1,65 @@
+package com.studyolle.study;
+
+import com.studyolle.domain.Study;
+import com.studyolle.domain.Tag;
+import com.studyolle.domain.Zone;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 스터디 화면(소개, 구성원)에 표시하는 스터디 정보
+ * 관리자와 회원 컬렉션은 가지고 있지 않고, 회원 수만 가지고 있다.
+ * */
+@Getter
+public class StudySummary {
+
+    private final Long id;
+
+    private final String path;
+
+    private final String title;
+
+    private final String shortDescription;
+
+    private final String fullDescription;
+
+    private final String image;
+
+    private final boolean useBanner;
+
+    private final boolean published;
+
+    private final boolean closed;
+
+    private final boolean recruiting;
+
+    private final List<Tag> tags;
+
+    private final List<Zone> zones;
+
+    private final int memberCount;
+
+    private StudySummary(Study study, int memberCount) {
+        this.id = study.getId();
+        this.path = study.getPath();
+        this.title = study.getTitle();
+        this.shortDescription = study.getShortDescription();
+        this.fullDescription = study.getFullDescription();
+        this.image = study.getImage();
+        this.useBanner = study.isUseBanner();
+        this.published = study.isPublished();
+        this.closed = study.isClosed();
+        this.recruiting = study.isRecruiting();
+        this.tags = List.copyOf(new ArrayList<>(study.getTags()));
+        this.zones = List.copyOf(new ArrayList<>(study.getZones()));
+        this.memberCount = memberCount;
+    }
+
+    // study는 tags와 zones를 함께 조회한 것이어야 한다.
+    public static StudySummary of(Study study, int memberCount) {
+        return new StudySummary(study, memberCount);
+    }
+
+}
@@ -1,32 +0,0 @@
-package com.studyolle.study.validator;
-
-import com.studyolle.study.StudyRepository;
-import com.studyolle.study.form.StudyForm;
-import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Component;
-import org.springframework.validation.Errors;
-import org.springframework.validation.Validator;
-
-@Component
-@RequiredArgsConstructor
-public class StudyFormValidator implements Validator {
-
-    private final StudyRepository studyRepository;
-
-    @Override
-    public boolean supports(Class<?> clazz) {
-        return StudyForm.class.isAssignableFrom(clazz);
-    }
-
-    @Override
-    public void validate(Object target, Errors errors) {
-        StudyForm studyForm = (StudyForm)target;
-
-        // 스터디 폼의 path가 DB에 존재하는지 확인한다.
-        if (studyRepository.existsByPath(studyForm.getPath())) {
-            errors.rejectValue("path", "wrong.path", "해당 스터디의 경로 값을 사용할 수 없습니다.");
-        }
-
-    }
-
-}
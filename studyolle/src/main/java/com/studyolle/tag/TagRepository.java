@@ -5,6 +5,5 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.transaction.annotation.Transactional;
 
 @Transactional(readOnly = true)
-public interface TagRepository extends JpaRepository<Tag, Long> {
-    Tag findByTitle(String title);
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryExtension {
 }
@@ -0,0 +1,10 @@
+package com.studyolle.tag;
+
+import com.studyolle.domain.Tag;
+
+public interface TagRepositoryExtension {
+
+    // 태그 이름(natural id)으로 찾는다. 2차 캐시에 있다면 DB를 조회하지 않는다.
+    Tag findByTitle(String title);
+
+}
@@ -0,0 +1,27 @@
+package com.studyolle.tag;
+
+import com.studyolle.domain.Tag;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/*
+ * 쿼리 메소드(findByTitle)는 매번 SQL을 실행하므로 하이버네이트의 natural id 조회를 사용한다.
+ * 이름 → id는 natural id 캐시에서, id → 태그는 엔티티 캐시에서 찾는다.
+ * */
+@Transactional(readOnly = true)
+public class TagRepositoryExtensionImpl implements TagRepositoryExtension {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Tag findByTitle(String title) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Tag.class)
+                .load(title);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.studyolle.tag;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.studyolle.domain.Tag;
+import com.studyolle.infra.jdbc.PooledSequenceAllocator;
+import org.hibernate.dialect.PostgreSQL95Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/*
+ * 태그 이름으로 태그 id를 찾고, 없다면 만든다.
+ * - 태그 이름은 유일하다. (ux_tag_title) 여러 사용자가 동시에 같은 새 태그를 추가해도 태그는 하나만 만들어진다.
+ * - 새 태그는 "없으면 INSERT" 문장 하나로 만든다. PostgreSQL은 on conflict do nothing을 사용하고,
+ *   그 외의 DB는 insert ... select ... where not exists를 사용한다. 동시에 INSERT 해서 유일 제약 조건을 위반하면
+ *   다른 트랜잭션이 만든 태그의 id를 조회한다.
+ * - 찾은 태그 id는 크기가 정해진 캐시(이름 → id)에 보관해서 다음에는 SQL을 실행하지 않는다.
+ *   태그는 지우지 않으므로 캐시에서 지우지 않는다. 캐시에는 트랜잭션이 커밋된 다음에 넣는다.
+ * */
+@Service
+@Transactional
+public class TagService {
+
+    private static final String INSERT_ON_CONFLICT_SQL =
+            "insert into tag (id, title) values (?, ?) on conflict (title) do nothing";
+
+    private static final String INSERT_IF_ABSENT_SQL =
+            "insert into tag (id, title) select ?, ? where not exists (select 1 from tag where title = ?)";
+
+    private static final String SELECT_ID_SQL = "select id from tag where title = ?";
+
+    private final TagRepository tagRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PooledSequenceAllocator idAllocator;
+    private final boolean onConflictSupported;
+
+    // 태그 이름 → id (CacheConfig.tagIdCache)
+    private final Cache<String, Long> tagIds;
+
+    public TagService(TagRepository tagRepository, JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                      EntityManagerFactory entityManagerFactory, Cache<String, Long> tagIdCache) {
+        this.tagRepository = tagRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.idAllocator = PooledSequenceAllocator.of(jdbcTemplate, entityManagerFactory,
+                Tag.ID_SEQUENCE, Tag.ID_ALLOCATION_SIZE);
+        this.onConflictSupported = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQL95Dialect;
+        this.tagIds = tagIdCache;
+    }
+
+    // 태그가 없다면 새로 만든다. 새 태그는 TagCreatedEvent로 알려서 태그 화이트리스트에 추가되도록 한다.
+    public Long getOrCreateTagId(String tagTitle) {
+        Long id = tagIds.getIfPresent(tagTitle);
+        if (id != null) {
+            return id;
+        }
+
+        Tag tag = tagRepository.findByTitle(tagTitle); // 2차 캐시
+        id = tag != null ? tag.getId() : insertIfAbsent(tagTitle);
+        rememberAfterCommit(tagTitle, id);
+        return id;
+    }
+
+    private Long insertIfAbsent(String tagTitle) {
+        long id = idAllocator.nextId();
+        int inserted;
+        try {
+            inserted = onConflictSupported
+                    ? jdbcTemplate.update(INSERT_ON_CONFLICT_SQL, id, tagTitle)
+                    : jdbcTemplate.update(INSERT_IF_ABSENT_SQL, id, tagTitle, tagTitle);
+        } catch (DuplicateKeyException e) {
+            // 다른 트랜잭션이 같은 태그를 먼저 INSERT 했다. (PostgreSQL은 트랜잭션이 중단되므로 on conflict를 사용한다)
+            inserted = 0;
+        }
+
+        if (inserted == 0) {
+            return jdbcTemplate.queryForObject(SELECT_ID_SQL, Long.class, tagTitle);
+        }
+        eventPublisher.publishEvent(new TagCreatedEvent(tagTitle));
+        return id;
+    }
+
+    // 태그를 만들지 않고 찾기만 한다. 없다면 null
+    @Transactional(readOnly = true)
+    public Long findTagId(String tagTitle) {
+        Long id = tagIds.getIfPresent(tagTitle);
+        if (id != null) {
+            return id;
+        }
+
+        Tag tag = tagRepository.findByTitle(tagTitle);
+        if (tag == null) {
+            return null;
+        }
+        rememberAfterCommit(tagTitle, tag.getId());
+        return tag.getId();
+    }
+
+    private void rememberAfterCommit(String tagTitle, Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tagIds.put(tagTitle, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                tagIds.put(tagTitle, id);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.studyolle.zone;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/*
+ * 운영 중에 지역 파일을 반영하는 관리 명령 (actuator의 zones 엔드포인트)
+ * 기본으로는 웹에 노출하지 않는다. JMX로 실행하거나, 관리자만 접근할 수 있는 경우에만
+ * management.endpoints.web.exposure.include에 zones를 추가해서 POST /actuator/zones {"location": "file:/data/zones.csv"}로 실행한다.
+ * */
+@Component
+@Endpoint(id = "zones")
+@RequiredArgsConstructor
+public class ZoneImportEndpoint {
+
+    private final ZoneImporter zoneImporter;
+    private final ResourceLoader resourceLoader;
+
+    @WriteOperation
+    public ZoneImportResult importZones(String location) throws IOException {
+        return zoneImporter.importZones(resourceLoader.getResource(location));
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.studyolle.zone;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ZoneImportResult {
+
+    private final String source;
+
+    private final int inserted;
+
+    private final int updated;
+
+    private final int unchanged;
+
+    // 형식이 맞지 않아서 건너뛴 줄
+    private final int skipped;
+
+    private final long elapsedMillis;
+
+    public int getRows() {
+        return inserted + updated + unchanged;
+    }
+
+    public long getRowsPerSecond() {
+        return getRows() * 1000L / Math.max(1, elapsedMillis);
+    }
+
+    public boolean isChanged() {
+        return inserted > 0 || updated > 0;
+    }
+
+}
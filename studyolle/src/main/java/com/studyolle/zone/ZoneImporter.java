@@ -0,0 +1,254 @@
+package com.studyolle.zone;
+
+import com.studyolle.config.AppProperties;
+import com.studyolle.domain.Zone;
+import com.studyolle.infra.jdbc.PooledSequenceAllocator;
+import com.studyolle.settings.WhitelistService;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQL95Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 지역 CSV(도시,도시의 한글 이름,주)를 읽어서 zone 테이블에 반영한다.
+ * - 파일 전체를 메모리에 올리지 않고 한 줄씩 읽는다. (getInputStream()을 사용하므로 jar 안의 파일도 읽을 수 있다)
+ * - 테이블을 메모리에 올리지 않는다. batchSize 만큼 모은 줄을 "없으면 INSERT, 한글 이름이 바뀌었으면 UPDATE" 하고 커밋한다.
+ *   그래서 같은 파일을 여러 번 읽어도 결과가 같고, 여러 서버가 동시에 읽어도 유일 제약 조건(ux_zone_city_province)을 위반하지 않는다.
+ * - PostgreSQL은 배치 하나를 insert ... on conflict (city, province) do update 문장 하나로 실행한다.
+ *   그 외의 DB는 update, insert ... select ... where not exists를 JDBC 배치로 실행하고, 동시에 INSERT 해서
+ *   유일 제약 조건을 위반하면 배치를 한 번 더 실행한다. (TagService와 같은 방법)
+ *   주가 없는 지역은 유일 제약 조건이 null을 비교하지 않으므로 PostgreSQL에서도 두 번째 방법을 사용한다.
+ * - id는 zone_seq에서 allocationSize 만큼씩 할당 받는다. 이미 있는 지역에 할당한 id는 사용하지 않는다.
+ * */
+@Slf4j
+@Component
+public class ZoneImporter {
+
+    // 새로 INSERT 한 행은 xmax가 0이다.
+    private static final String UPSERT_ON_CONFLICT_SQL =
+            "insert into zone (id, city, local_name_of_city, province) " +
+            "select * from unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[]) " +
+            "on conflict (city, province) do update set local_name_of_city = excluded.local_name_of_city " +
+            "where zone.local_name_of_city <> excluded.local_name_of_city " +
+            "returning (xmax = 0)";
+
+    private static final String UPDATE_SQL =
+            "update zone set local_name_of_city = ? " +
+            "where city = ? and coalesce(province, '') = coalesce(?, '') and local_name_of_city <> ?";
+
+    private static final String INSERT_IF_ABSENT_SQL =
+            "insert into zone (id, city, local_name_of_city, province) select ?, ?, ?, cast(? as varchar(255)) " +
+            "where not exists (select 1 from zone where city = ? and coalesce(province, '') = coalesce(?, ''))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PooledSequenceAllocator idAllocator;
+    private final WhitelistService whitelistService;
+    private final Cache secondLevelCache;
+    private final boolean onConflictSupported;
+    private final int batchSize;
+
+    public ZoneImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        EntityManagerFactory entityManagerFactory, WhitelistService whitelistService,
+                        AppProperties appProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idAllocator = PooledSequenceAllocator.of(jdbcTemplate, entityManagerFactory,
+                Zone.ID_SEQUENCE, Zone.ID_ALLOCATION_SIZE);
+        this.whitelistService = whitelistService;
+        this.secondLevelCache = entityManagerFactory.getCache();
+        this.onConflictSupported = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQL95Dialect;
+        this.batchSize = appProperties.getZone().getBatchSize();
+    }
+
+    public synchronized ZoneImportResult importZones(Resource resource) throws IOException {
+        long start = System.currentTimeMillis();
+        // 배치 안에서 같은 지역이 다시 나오면 마지막 줄을 사용한다.
+        Map<String, ZoneRow> batch = new LinkedHashMap<>();
+        Counts counts = new Counts();
+        int skipped = 0;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] split = line.split(",", -1);
+                if (split.length != 3 || split[0].isBlank() || split[1].isBlank()) {
+                    if (!line.isBlank()) {
+                        skipped++;
+                    }
+                    continue;
+                }
+                String city = split[0].trim();
+                String localNameOfCity = split[1].trim();
+                String province = split[2].isBlank() ? null : split[2].trim();
+
+                batch.put(key(city, province), new ZoneRow(city, localNameOfCity, province));
+                if (batch.size() >= batchSize) {
+                    flush(batch.values(), counts);
+                    batch.clear();
+                }
+            }
+        }
+        flush(batch.values(), counts);
+
+        ZoneImportResult result = new ZoneImportResult(resource.getDescription(), counts.inserted, counts.updated,
+                counts.unchanged, skipped, System.currentTimeMillis() - start);
+        if (result.isChanged()) {
+            whitelistService.evictZoneWhitelist();
+            // JDBC로 바꾼 지역은 하이버네이트가 모르므로 2차 캐시에서 지운다.
+            secondLevelCache.evict(Zone.class);
+        }
+        log.info("imported zones from {}: {} inserted, {} updated, {} unchanged, {} skipped in {}ms ({} rows/sec)",
+                result.getSource(), result.getInserted(), result.getUpdated(), result.getUnchanged(), skipped,
+                result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private void flush(Collection<ZoneRow> rows, Counts counts) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<ZoneRow> withProvince = new ArrayList<>(rows.size());
+        List<ZoneRow> withoutProvince = new ArrayList<>();
+        rows.forEach(zone -> (onConflictSupported && zone.province != null ? withProvince : withoutProvince).add(zone));
+
+        Counts batchCounts;
+        try {
+            batchCounts = transactionTemplate.execute(status -> upsert(withProvince, withoutProvince));
+        } catch (DuplicateKeyException e) {
+            // 다른 서버가 같은 지역을 먼저 INSERT 했다. 다시 실행하면 그 지역은 UPDATE 하거나 그대로 둔다.
+            batchCounts = transactionTemplate.execute(status -> upsert(withProvince, withoutProvince));
+        }
+        counts.add(batchCounts);
+    }
+
+    private Counts upsert(List<ZoneRow> withProvince, List<ZoneRow> withoutProvince) {
+        Counts counts = new Counts();
+        if (!withProvince.isEmpty()) {
+            upsertOnConflict(withProvince, counts);
+        }
+        if (!withoutProvince.isEmpty()) {
+            upsertIfAbsent(withoutProvince, counts);
+        }
+        return counts;
+    }
+
+    private void upsertOnConflict(List<ZoneRow> rows, Counts counts) {
+        Long[] ids = new Long[rows.size()];
+        String[] cities = new String[rows.size()];
+        String[] localNames = new String[rows.size()];
+        String[] provinces = new String[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ZoneRow zone = rows.get(i);
+            ids[i] = idAllocator.nextId();
+            cities[i] = zone.city;
+            localNames[i] = zone.localNameOfCity;
+            provinces[i] = zone.province;
+        }
+
+        List<Boolean> inserted = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPSERT_ON_CONFLICT_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("varchar", cities));
+            statement.setArray(3, connection.createArrayOf("varchar", localNames));
+            statement.setArray(4, connection.createArrayOf("varchar", provinces));
+            return statement;
+        }, (rs, rowNum) -> rs.getBoolean(1));
+
+        inserted.forEach(insert -> {
+            if (insert) {
+                counts.inserted++;
+            } else {
+                counts.updated++;
+            }
+        });
+        counts.unchanged += rows.size() - inserted.size();
+    }
+
+    private void upsertIfAbsent(List<ZoneRow> rows, Counts counts) {
+        List<Object[]> updateArgs = new ArrayList<>(rows.size());
+        rows.forEach(zone -> updateArgs.add(new Object[]{zone.localNameOfCity, zone.city, zone.province, zone.localNameOfCity}));
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updateArgs);
+
+        List<Object[]> insertArgs = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ZoneRow zone = rows.get(i);
+            if (updated[i] > 0) {
+                counts.updated++;
+            } else {
+                insertArgs.add(new Object[]{idAllocator.nextId(), zone.city, zone.localNameOfCity, zone.province,
+                        zone.city, zone.province});
+            }
+        }
+        if (insertArgs.isEmpty()) {
+            return;
+        }
+
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, insertArgs);
+        for (int count : inserted) {
+            if (count > 0) {
+                counts.inserted++;
+            } else {
+                counts.unchanged++;
+            }
+        }
+    }
+
+    private static String key(String city, String province) {
+        return province == null ? city : city + '\u0000' + province;
+    }
+
+    private static class ZoneRow {
+
+        private final String city;
+
+        private final String localNameOfCity;
+
+        private final String province;
+
+        ZoneRow(String city, String localNameOfCity, String province) {
+            this.city = city;
+            this.localNameOfCity = localNameOfCity;
+            this.province = province;
+        }
+
+    }
+
+    private static class Counts {
+
+        private int inserted;
+
+        private int updated;
+
+        private int unchanged;
+
+        void add(Counts counts) {
+            inserted += counts.inserted;
+            updated += counts.updated;
+            unchanged += counts.unchanged;
+        }
+
+    }
+
+}
@@ -3,6 +3,5 @@ package com.studyolle.zone;
 import com.studyolle.domain.Zone;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ZoneRepository extends JpaRepository<Zone, Long> {
-    Zone findByCityAndProvince(String cityName, String provinceName);
+public interface ZoneRepository extends JpaRepository<Zone, Long>, ZoneRepositoryExtension {
 }
@@ -0,0 +1,10 @@
+package com.studyolle.zone;
+
+import com.studyolle.domain.Zone;
+
+public interface ZoneRepositoryExtension {
+
+    // 도시와 주(natural id)로 찾는다. 2차 캐시에 있다면 DB를 조회하지 않는다.
+    Zone findByCityAndProvince(String cityName, String provinceName);
+
+}
@@ -0,0 +1,38 @@
+package com.studyolle.zone;
+
+import com.studyolle.domain.Zone;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/*
+ * 쿼리 메소드(findByCityAndProvince)는 매번 SQL을 실행하므로 하이버네이트의 natural id 조회를 사용한다.
+ * natural id 조회는 province = null 로 비교하므로, 주가 없는 지역은 쿼리로 찾는다.
+ * */
+@Transactional(readOnly = true)
+public class ZoneRepositoryExtensionImpl implements ZoneRepositoryExtension {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Zone findByCityAndProvince(String cityName, String provinceName) {
+        if (provinceName == null) {
+            List<Zone> zones = entityManager
+                    .createQuery("select z from Zone z where z.city = :city and z.province is null", Zone.class)
+                    .setParameter("city", cityName)
+                    .getResultList();
+            return zones.isEmpty() ? null : zones.get(0);
+        }
+
+        return entityManager.unwrap(Session.class)
+                .byNaturalId(Zone.class)
+                .using("city", cityName)
+                .using("province", provinceName)
+                .load();
+    }
+
+}
@@ -1,36 +1,34 @@
 package com.studyolle.zone;
 
-import com.studyolle.domain.Zone;
+import com.studyolle.config.AppProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
-@Transactional
 @RequiredArgsConstructor
 public class ZoneService {
 
-    private final ZoneRepository zoneRepository;
+    static final String ZONES_KR = "zones_kr.csv";
 
+    private final ZoneImporter zoneImporter;
+    private final AppProperties appProperties;
+
+    /*
+     * 서버가 시작될 때 기본 지역 정보를 반영하고, app.zone.import-file이 있다면 그 파일도 반영한다.
+     * 이미 있는 지역은 다시 INSERT 하지 않으므로 매번 실행해도 된다.
+     * */
     @PostConstruct
     public void initZoneData() throws IOException {
-        if (zoneRepository.count() == 0) {
-            Resource resource = new ClassPathResource("zones_kr.csv");
-            List<Zone> zoneList = Files.readAllLines(resource.getFile().toPath(), StandardCharsets.UTF_8).stream()
-                    .map(line -> {
-                        String[] split = line.split(",");
-                        return Zone.builder().city(split[0]).localNameOfCity(split[1]).province(split[2]).build();
-                    }).collect(Collectors.toList());
-            zoneRepository.saveAll(zoneList);
+        zoneImporter.importZones(new ClassPathResource(ZONES_KR));
+
+        Resource importFile = appProperties.getZone().getImportFile();
+        if (importFile != null) {
+            zoneImporter.importZones(importFile);
         }
     }
 
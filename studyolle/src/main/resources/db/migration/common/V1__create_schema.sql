@@ -0,0 +1,148 @@
+-- 엔티티의 매핑과 같은 스키마 (H2와 PostgreSQL에서 모두 실행되는 SQL만 사용한다)
+-- 엔티티를 바꾸면 새로운 버전의 마이그레이션을 추가한다. 애플리케이션은 ddl-auto=validate로 스키마가 매핑과 같은지 확인한다.
+
+-- 엔티티마다 시퀀스를 두고 50개씩 할당 받는다. (@SequenceGenerator의 allocationSize, pooled-lo)
+create sequence account_seq start with 1 increment by 50;
+create sequence study_seq start with 1 increment by 50;
+create sequence tag_seq start with 1 increment by 50;
+create sequence zone_seq start with 1 increment by 50;
+create sequence outbox_email_seq start with 1 increment by 50;
+
+create table account (
+    id                               bigint       not null,
+    email                            varchar(255),
+    nickname                         varchar(255),
+    password                         varchar(255),
+    email_verified                   boolean      not null,
+    email_check_token                varchar(255),
+    email_check_token_generated_at   timestamp,
+    joined_at                        timestamp,
+    bio                              varchar(255),
+    url                              varchar(255),
+    occupation                       varchar(255),
+    location                         varchar(255),
+    profile_image                    varchar(100),
+    study_created_by_email           boolean      not null,
+    study_created_by_web             boolean      not null,
+    study_enrollment_result_by_email boolean      not null,
+    study_enrollment_result_by_web   boolean      not null,
+    study_updated_by_email           boolean      not null,
+    study_updated_by_web             boolean      not null,
+    constraint pk_account primary key (id),
+    constraint ux_account_email unique (email),
+    constraint ux_account_nickname unique (nickname)
+);
+
+create table tag (
+    id    bigint       not null,
+    title varchar(255),
+    constraint pk_tag primary key (id)
+);
+
+create table zone (
+    id                 bigint       not null,
+    city               varchar(255) not null,
+    local_name_of_city varchar(255) not null,
+    province           varchar(255),
+    constraint pk_zone primary key (id),
+    constraint ux_zone_city_province unique (city, province)
+);
+
+create table study (
+    id                           bigint       not null,
+    path                         varchar(255),
+    title                        varchar(255),
+    short_description            varchar(255),
+    full_description             text,
+    image                        text,
+    published_date_time          timestamp,
+    closed_date_time             timestamp,
+    recruiting_updated_date_time timestamp,
+    recruiting                   boolean      not null,
+    published                    boolean      not null,
+    closed                       boolean      not null,
+    use_banner                   boolean      not null,
+    constraint pk_study primary key (id),
+    constraint ux_study_path unique (path)
+);
+
+-- @ManyToMany 조인 테이블: 기본 키는 (소유하는 쪽 id, 대상 id)
+create table account_tags (
+    account_id bigint not null,
+    tags_id    bigint not null,
+    constraint pk_account_tags primary key (account_id, tags_id),
+    constraint fk_account_tags_account foreign key (account_id) references account (id),
+    constraint fk_account_tags_tag foreign key (tags_id) references tag (id)
+);
+
+create table account_zones (
+    account_id bigint not null,
+    zones_id   bigint not null,
+    constraint pk_account_zones primary key (account_id, zones_id),
+    constraint fk_account_zones_account foreign key (account_id) references account (id),
+    constraint fk_account_zones_zone foreign key (zones_id) references zone (id)
+);
+
+create table study_managers (
+    study_id    bigint not null,
+    managers_id bigint not null,
+    constraint pk_study_managers primary key (study_id, managers_id),
+    constraint fk_study_managers_study foreign key (study_id) references study (id),
+    constraint fk_study_managers_account foreign key (managers_id) references account (id)
+);
+
+create table study_members (
+    study_id   bigint not null,
+    members_id bigint not null,
+    constraint pk_study_members primary key (study_id, members_id),
+    constraint fk_study_members_study foreign key (study_id) references study (id),
+    constraint fk_study_members_account foreign key (members_id) references account (id)
+);
+
+create table study_tags (
+    study_id bigint not null,
+    tags_id  bigint not null,
+    constraint pk_study_tags primary key (study_id, tags_id),
+    constraint fk_study_tags_study foreign key (study_id) references study (id),
+    constraint fk_study_tags_tag foreign key (tags_id) references tag (id)
+);
+
+create table study_zones (
+    study_id bigint not null,
+    zones_id bigint not null,
+    constraint pk_study_zones primary key (study_id, zones_id),
+    constraint fk_study_zones_study foreign key (study_id) references study (id),
+    constraint fk_study_zones_zone foreign key (zones_id) references zone (id)
+);
+
+-- 프로필 이미지 저장소 (내용의 SHA-256 해시 → 디코딩된 바이트)
+create table image (
+    hash         varchar(64) not null,
+    content_type varchar(50) not null,
+    data         bytea       not null,
+    created_at   timestamp,
+    constraint pk_image primary key (hash)
+);
+
+-- 메일 아웃박스
+create table outbox_email (
+    id              bigint       not null,
+    recipient       varchar(255) not null,
+    subject         varchar(255),
+    message         text,
+    status          varchar(20)  not null,
+    attempts        integer      not null,
+    next_attempt_at timestamp,
+    created_at      timestamp,
+    sent_at         timestamp,
+    constraint pk_outbox_email primary key (id)
+);
+
+-- remember-me 토큰
+create table persistent_logins (
+    series    varchar(64) not null,
+    username  varchar(64) not null,
+    token     varchar(64) not null,
+    last_used timestamp   not null,
+    constraint pk_persistent_logins primary key (series)
+);
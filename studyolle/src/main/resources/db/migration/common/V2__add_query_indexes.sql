@@ -0,0 +1,29 @@
+-- 리포지토리의 쿼리가 사용하는 인덱스
+-- 조인 테이블의 기본 키 (소유하는 쪽 id, 대상 id)는 소유하는 쪽에서 찾는 쿼리를 처리한다.
+-- 반대 방향으로 찾는 쿼리와 태그, 지역, 계정, 스터디를 지울 때 외래 키를 확인하는 쿼리를 위해서 (대상 id, 소유하는 쪽 id) 인덱스를 추가한다.
+-- 두 컬럼을 모두 가지므로 테이블을 읽지 않고 인덱스만으로 처리할 수 있다.
+
+-- 계정이 관리하는 스터디, 가입한 스터디
+create index ix_study_managers_managers_id_study_id on study_managers (managers_id, study_id);
+create index ix_study_members_members_id_study_id on study_members (members_id, study_id);
+
+-- 태그, 지역으로 스터디 찾기 (추천 색인, 검색 필터)
+create index ix_study_tags_tags_id_study_id on study_tags (tags_id, study_id);
+create index ix_study_zones_zones_id_study_id on study_zones (zones_id, study_id);
+
+-- 태그, 지역에 관심이 있는 계정 찾기
+create index ix_account_tags_tags_id_account_id on account_tags (tags_id, account_id);
+create index ix_account_zones_zones_id_account_id on account_zones (zones_id, account_id);
+
+-- 이메일 인증, 이메일 로그인 링크의 토큰
+create index ix_account_email_check_token on account (email_check_token);
+
+-- TagRepository.findByTitle
+create index ix_tag_title on tag (title);
+
+-- 로그아웃할 때 사용자의 remember-me 토큰 삭제 (deleteByUsername), 유효 기간이 지난 토큰 삭제 (deleteExpired)
+create index ix_persistent_logins_username on persistent_logins (username);
+create index ix_persistent_logins_last_used on persistent_logins (last_used);
+
+-- 메일 아웃박스: 발송할 시각이 된 PENDING 메일 찾기, 상태별 개수, 점유 기한이 지난 SENDING 메일 되돌리기
+create index ix_outbox_email_status_next_attempt_at on outbox_email (status, next_attempt_at);
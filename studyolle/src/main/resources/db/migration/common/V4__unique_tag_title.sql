@@ -0,0 +1,34 @@
+-- 태그 이름을 유일하게 한다. 동시에 같은 태그를 추가해도 태그가 하나만 만들어진다. (TagService.getOrCreateTagId)
+-- 이미 중복된 태그가 있다면 id가 가장 작은 태그로 합친다.
+
+-- 1. 같은 계정(스터디)이 같은 이름의 태그를 여러 개 가지고 있다면 id가 가장 작은 태그만 남긴다.
+delete from account_tags
+where exists (select 1
+              from tag d, tag k, account_tags x
+              where d.id = account_tags.tags_id
+                and k.title = d.title and k.id < d.id
+                and x.account_id = account_tags.account_id and x.tags_id = k.id);
+
+delete from study_tags
+where exists (select 1
+              from tag d, tag k, study_tags x
+              where d.id = study_tags.tags_id
+                and k.title = d.title and k.id < d.id
+                and x.study_id = study_tags.study_id and x.tags_id = k.id);
+
+-- 2. 남은 중복 태그를 id가 가장 작은 태그로 바꾼다.
+update account_tags
+set tags_id = (select min(k.id) from tag d, tag k where d.id = account_tags.tags_id and k.title = d.title)
+where tags_id in (select d.id from tag d where exists (select 1 from tag k where k.title = d.title and k.id < d.id));
+
+update study_tags
+set tags_id = (select min(k.id) from tag d, tag k where d.id = study_tags.tags_id and k.title = d.title)
+where tags_id in (select d.id from tag d where exists (select 1 from tag k where k.title = d.title and k.id < d.id));
+
+-- 3. 중복 태그를 지운다.
+delete from tag
+where exists (select 1 from tag k where k.title = tag.title and k.id < tag.id);
+
+-- 유일 제약 조건의 인덱스가 이름으로 찾는 쿼리도 처리한다.
+drop index ix_tag_title;
+alter table tag add constraint ux_tag_title unique (title);
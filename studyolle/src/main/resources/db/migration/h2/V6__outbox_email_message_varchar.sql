@@ -0,0 +1,3 @@
+-- H2는 text 컬럼을 CLOB으로 만든다. OutboxEmail.message는 @Lob이 아닌 문자열이므로 길이 제한이 없는 varchar로 바꾼다.
+-- PostgreSQL에서는 text 그대로 사용한다.
+alter table outbox_email alter column message set data type varchar;
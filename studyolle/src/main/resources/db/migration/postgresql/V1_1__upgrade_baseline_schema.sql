@@ -0,0 +1,90 @@
+-- ddl-auto=update로 만들어진 DB(baseline)를 V1과 같은 스키마로 맞춘다.
+-- baseline(V1)을 건너뛴 기존 DB에는 image, outbox_email 테이블과 엔티티별 시퀀스가 없고, profile_image가 text(@Lob)이다.
+-- V2가 outbox_email에 인덱스를 만들기 전에 실행되도록 1.1 버전을 사용한다.
+-- V1로 만든 새로운 DB에서는 아무것도 바뀌지 않는다.
+
+create sequence if not exists account_seq increment by 50;
+create sequence if not exists study_seq increment by 50;
+create sequence if not exists tag_seq increment by 50;
+create sequence if not exists zone_seq increment by 50;
+create sequence if not exists outbox_email_seq increment by 50;
+
+create table if not exists image (
+    hash         varchar(64) not null,
+    content_type varchar(50) not null,
+    data         bytea       not null,
+    created_at   timestamp,
+    constraint pk_image primary key (hash)
+);
+
+create table if not exists outbox_email (
+    id              bigint       not null,
+    recipient       varchar(255) not null,
+    subject         varchar(255),
+    message         text,
+    status          varchar(20)  not null,
+    attempts        integer      not null,
+    next_attempt_at timestamp,
+    created_at      timestamp,
+    sent_at         timestamp,
+    constraint pk_outbox_email primary key (id)
+);
+
+create table if not exists persistent_logins (
+    series    varchar(64) not null,
+    username  varchar(64) not null,
+    token     varchar(64) not null,
+    last_used timestamp   not null,
+    constraint pk_persistent_logins primary key (series)
+);
+
+-- profile_image: data URL(text) → 이미지 저장소의 참조(/images/{hash}, varchar(100))
+-- 하이버네이트는 @Lob String을 large object에 저장하고 컬럼에는 그 oid를 남긴다.
+-- data URL을 디코딩해서 image에 저장하고(ImageService.store와 같은 SHA-256 해시) 참조로 바꾼 다음 large object를 지운다.
+-- 이미지로 옮길 수 없는 값은 비운다. (sha256 함수는 PostgreSQL 11 이상)
+do $$
+declare
+    account_row   record;
+    data_url      text;
+    image_type    text;
+    image_data    bytea;
+    image_hash    varchar(64);
+begin
+    if (select data_type from information_schema.columns
+        where table_schema = current_schema() and table_name = 'account' and column_name = 'profile_image') <> 'text' then
+        return;
+    end if;
+
+    for account_row in select id, profile_image from account where profile_image is not null loop
+        begin
+            if account_row.profile_image ~ '^[0-9]+$' then
+                data_url := convert_from(lo_get(account_row.profile_image::oid), 'UTF8');
+            else
+                data_url := account_row.profile_image;
+            end if;
+
+            image_type := substring(data_url from '^data:(image/(png|jpeg|gif|webp));base64,');
+            if image_type is null then
+                raise exception 'not an image data url';
+            end if;
+
+            image_data := decode(substring(data_url from position(',' in data_url) + 1), 'base64');
+            image_hash := encode(sha256(image_data), 'hex');
+            insert into image (hash, content_type, data, created_at)
+            values (image_hash, image_type, image_data, now())
+            on conflict (hash) do nothing;
+
+            update account set profile_image = '/images/' || image_hash where id = account_row.id;
+        exception when others then
+            raise notice 'profile image of account % is cleared: %', account_row.id, sqlerrm;
+            update account set profile_image = null where id = account_row.id;
+        end;
+
+        if exists (select 1 from pg_largeobject_metadata where oid::text = account_row.profile_image) then
+            perform lo_unlink(account_row.profile_image::oid);
+        end if;
+    end loop;
+
+    alter table account alter column profile_image type varchar(100);
+end
+$$;
@@ -0,0 +1,17 @@
+-- ddl-auto=update로 만들어진 DB를 Flyway로 옮길 때(baseline) 필요한 시퀀스 보정
+-- 예전 버전은 모든 엔티티가 hibernate_sequence를 사용했다. (account_seq, study_seq, tag_seq, zone_seq, outbox_email_seq로 바뀜)
+-- 기존 id는 그대로 두고, 새로운 시퀀스가 테이블의 가장 큰 id 다음부터 시작하게 한다.
+-- 하이버네이트는 시퀀스 값 v를 받으면 v ~ v + 49를 사용하므로(pooled-lo) 시퀀스는 50씩 증가해야 한다. (@SequenceGenerator의 allocationSize)
+-- V1로 만든 새로운 DB에서는 아무것도 바뀌지 않는다.
+
+create sequence if not exists account_seq increment by 50;
+create sequence if not exists study_seq increment by 50;
+create sequence if not exists tag_seq increment by 50;
+create sequence if not exists zone_seq increment by 50;
+create sequence if not exists outbox_email_seq increment by 50;
+
+select setval('account_seq', greatest((select coalesce(max(id), 0) + 1 from account), nextval('account_seq')), false);
+select setval('study_seq', greatest((select coalesce(max(id), 0) + 1 from study), nextval('study_seq')), false);
+select setval('tag_seq', greatest((select coalesce(max(id), 0) + 1 from tag), nextval('tag_seq')), false);
+select setval('zone_seq', greatest((select coalesce(max(id), 0) + 1 from zone), nextval('zone_seq')), false);
+select setval('outbox_email_seq', greatest((select coalesce(max(id), 0) + 1 from outbox_email), nextval('outbox_email_seq')), false);
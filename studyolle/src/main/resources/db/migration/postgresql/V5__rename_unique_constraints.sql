@@ -0,0 +1,27 @@
+-- ddl-auto=update로 만들어진 DB(baseline)의 유일 제약 조건 이름(uk_...)을 V1과 같은 이름으로 바꾼다.
+-- StudyService는 ux_study_path 제약 조건 위반으로 스터디 경로 중복을 알아낸다.
+-- V1로 만든 새로운 DB에서는 아무것도 바뀌지 않는다.
+do $$
+declare
+    target       record;
+    current_name text;
+begin
+    for target in select * from (values ('study', 'path', 'ux_study_path'),
+                                         ('account', 'email', 'ux_account_email'),
+                                         ('account', 'nickname', 'ux_account_nickname'),
+                                         ('zone', 'city,province', 'ux_zone_city_province'))
+                                as t (table_name, column_names, constraint_name) loop
+        select c.conname into current_name
+        from pg_constraint c
+        where c.conrelid = target.table_name::regclass
+          and c.contype = 'u'
+          and (select string_agg(a.attname, ',' order by k.position)
+               from unnest(c.conkey) with ordinality as k (attnum, position)
+                        join pg_attribute a on a.attrelid = c.conrelid and a.attnum = k.attnum) = target.column_names;
+
+        if current_name is not null and current_name <> target.constraint_name then
+            execute format('alter table %I rename constraint %I to %I', target.table_name, current_name, target.constraint_name);
+        end if;
+    end loop;
+end
+$$;
@@ -0,0 +1,14 @@
+-- outbox_email.message를 @Lob으로 매핑했을 때 저장된 메일은 내용이 large object에 있고 컬럼에는 그 oid가 있다.
+-- 내용을 컬럼으로 옮기고 large object를 지운다. V1_1의 profile_image와 같은 방법이다.
+do $$
+declare
+    outbox_row record;
+begin
+    for outbox_row in select id, message from outbox_email where message ~ '^[0-9]+$' loop
+        if exists (select 1 from pg_largeobject_metadata where oid::text = outbox_row.message) then
+            update outbox_email set message = convert_from(lo_get(outbox_row.message::oid), 'UTF8') where id = outbox_row.id;
+            perform lo_unlink(outbox_row.message::oid);
+        end if;
+    end loop;
+end
+$$;
@@ -0,0 +1,116 @@
+package com.studyolle;
+
+import com.studyolle.account.AccountRepository;
+import com.studyolle.account.AccountService;
+import com.studyolle.account.SignUpForm;
+import com.studyolle.config.CacheConfig;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import com.studyolle.domain.Tag;
+import com.studyolle.study.StudyRepository;
+import com.studyolle.study.StudyService;
+import com.studyolle.study.StudySummary;
+import com.studyolle.tag.TagRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CacheTest {
+
+    @Autowired AccountService accountService;
+    @Autowired AccountRepository accountRepository;
+    @Autowired StudyService studyService;
+    @Autowired StudyRepository studyRepository;
+    @Autowired TagRepository tagRepository;
+    @Autowired CacheManager cacheManager;
+    @Autowired MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void beforeEach() {
+        SignUpForm signUpForm = new SignUpForm();
+        signUpForm.setNickname("kevin");
+        signUpForm.setEmail("kevin@email.com");
+        signUpForm.setPassword("12345678");
+        accountService.processNewAccount(signUpForm);
+    }
+
+    @AfterEach
+    void afterEach() {
+        studyRepository.deleteAll();
+        accountRepository.deleteAll();
+        tagRepository.deleteAll();
+        // 리포지토리로 지운 스터디는 캐시에서 지워지지 않는다.
+        cacheManager.getCache(CacheConfig.STUDY_SUMMARY).clear();
+    }
+
+    @DisplayName("태그 이름으로 찾으면 2차 캐시에서 찾고, 히트 수를 메트릭으로 남긴다")
+    @Test
+    void tagByTitle() {
+        Tag saved = tagRepository.save(Tag.builder().title("spring").build());
+        double hits = cacheGets("tag-natural-id", "hit");
+
+        Tag tag = tagRepository.findByTitle("spring");
+        assertEquals(saved.getId(), tag.getId());
+        assertEquals(saved.getId(), tagRepository.findByTitle("spring").getId());
+        assertTrue(cacheGets("tag-natural-id", "hit") >= hits + 2);
+
+        assertNull(tagRepository.findByTitle("jpa"));
+    }
+
+    @DisplayName("스터디 요약은 경로로 캐시하고, 없는 스터디는 캐시하지 않는다")
+    @Test
+    void studySummary() {
+        assertNull(studyService.getStudySummary("test-path"));
+
+        Account account = accountRepository.findByNickname("kevin");
+        studyService.createNewStudy(newStudy("study title"), account);
+
+        StudySummary summary = studyService.getStudySummary("test-path");
+        assertNotNull(summary);
+        assertEquals("study title", summary.getTitle());
+        assertSame(summary, studyService.getStudySummary("test-path"));
+    }
+
+    @DisplayName("스터디를 만들면 커밋된 다음에 같은 경로의 캐시를 새 스터디 요약으로 바꾼다")
+    @Test
+    void putOnCreate() {
+        Account account = accountRepository.findByNickname("kevin");
+        studyService.createNewStudy(newStudy("old title"), account);
+        assertEquals("old title", studyService.getStudySummary("test-path").getTitle());
+
+        studyRepository.deleteAll();
+        studyService.createNewStudy(newStudy("new title"), account);
+
+        StudySummary cached = cacheManager.getCache(CacheConfig.STUDY_SUMMARY).get("test-path", StudySummary.class);
+        assertNotNull(cached);
+        assertEquals("new title", cached.getTitle());
+        assertEquals(0, cached.getMemberCount());
+        assertTrue(cached.getTags().isEmpty());
+        assertSame(cached, studyService.getStudySummary("test-path"));
+    }
+
+    private static Study newStudy(String title) {
+        Study study = new Study();
+        study.setPath("test-path");
+        study.setTitle(title);
+        study.setShortDescription("short description of a study");
+        study.setFullDescription("full description of a study");
+        return study;
+    }
+
+    private double cacheGets(String cache, String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets").tag("cache", cache).tag("result", result).functionCounter();
+        assertNotNull(counter, cache + " 캐시의 메트릭이 없다");
+        return counter.count();
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.studyolle;
+
+import com.studyolle.account.AccountRepository;
+import com.studyolle.account.AccountService;
+import com.studyolle.account.SignUpForm;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.actuate.autoconfigure.web.server.LocalManagementPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 액추에이터는 관리 포트에서만 응답하므로 실제 서버를 띄운다.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureMockMvc
+class MetricsTest {
+
+    @LocalServerPort int port;
+    @LocalManagementPort int managementPort;
+    @Autowired TestRestTemplate restTemplate;
+    @Autowired MockMvc mockMvc;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired AccountService accountService;
+    @Autowired AccountRepository accountRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        SignUpForm signUpForm = new SignUpForm();
+        signUpForm.setNickname("kevin");
+        signUpForm.setEmail("kevin@email.com");
+        signUpForm.setPassword("12345678");
+        accountService.processNewAccount(signUpForm);
+    }
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @DisplayName("프로메테우스 형식의 메트릭은 관리 포트에서 로그인 없이 조회할 수 있고, 히스토그램은 정해진 구간만 기록한다")
+    @Test
+    void prometheus() throws Exception {
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk());
+
+        ResponseEntity<String> response = restTemplate.getForEntity(managementUrl("/actuator/prometheus"), String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertThat(response.getBody(), containsString("view_render_seconds_bucket{application=\"studyolle\",exception=\"None\",view=\"index\",le=\"0.025\""));
+        assertThat(response.getBody(), matchesPattern("(?s).*hikaricp_connections_acquire_seconds_bucket\\{[^}]*le=\"0.005\".*"));
+        assertThat(response.getBody(), containsString("account_signup_total"));
+    }
+
+    @DisplayName("애플리케이션 포트에서는 액추에이터가 응답하지 않고, 관리 포트의 헬스 체크는 로그인 없이 요청한다")
+    @Test
+    void actuatorOnManagementPortOnly() {
+        ResponseEntity<String> metrics = restTemplate.getForEntity("http://localhost:" + port + "/actuator/prometheus", String.class);
+        assertThat(metrics.getBody(), not(containsString("account_signup_total")));
+
+        ResponseEntity<String> health = restTemplate.getForEntity(managementUrl("/actuator/health"), String.class);
+        assertEquals(HttpStatus.OK, health.getStatusCode());
+        assertThat(health.getBody(), containsString("UP"));
+    }
+
+    private String managementUrl(String path) {
+        return "http://localhost:" + managementPort + path;
+    }
+
+    @DisplayName("폼 로그인 결과를 센다")
+    @Test
+    void loginCounter() throws Exception {
+        double success = loginCount("success");
+        double failure = loginCount("failure");
+
+        mockMvc.perform(post("/login")
+                .param("username", "kevin")
+                .param("password", "12345678")
+                .with(csrf()))
+                .andExpect(status().is3xxRedirection());
+        mockMvc.perform(post("/login")
+                .param("username", "kevin")
+                .param("password", "wrong password")
+                .with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(success + 1, loginCount("success"));
+        assertEquals(failure + 1, loginCount("failure"));
+    }
+
+    private double loginCount(String result) {
+        return meterRegistry.counter("account.login", "method", "form", "result", result).count();
+    }
+
+}
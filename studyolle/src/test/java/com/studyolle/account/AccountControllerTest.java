@@ -1,23 +1,22 @@
 package com.studyolle.account;
 
 import com.studyolle.domain.Account;
-import com.studyolle.mail.EmailMessage;
-import com.studyolle.mail.EmailService;
+import com.studyolle.mail.OutboxEmailRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import javax.transaction.Transactional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.BDDMockito.then;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
@@ -36,12 +35,9 @@ class AccountControllerTest {
 
     @Autowired private AccountRepository accountRepository;
 
-    /*
-    * @MockBean를 사용해서 Mocking 한다.
-    * 외부 연동은 Mocking으로 처리해서 쉽게 테스트 할 수 있다.
-    * */
-    @MockBean
-    EmailService emailService;
+    @Autowired private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired private PasswordEncoder passwordEncoder;
 
     @DisplayName("인증 메일 확인 - 입력 값 오류")
     @Test
@@ -82,6 +78,34 @@ class AccountControllerTest {
                 .andExpect(authenticated().withUsername("kevin")); // 인증된 사용자 인지를 확인한다.
     }
 
+    // open-in-view=false: 컨트롤러가 트랜잭션 밖에서 조회한 계정을 바꾸므로, 실제로 커밋되어 저장되었는지 다시 읽어서 확인한다.
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    @DisplayName("인증 메일 확인 - 인증한 결과가 DB에 저장된다")
+    @Test
+    void checkEmailToken_stored() throws Exception {
+        try {
+            Account account = Account.builder()
+                    .email("test@email.com")
+                    .password("12345678")
+                    .nickname("kevin")
+                    .build();
+            account.generateEmailCheckToken();
+            accountRepository.save(account);
+
+            mockMvc.perform(get("/check-email-token")
+                    .param("token", account.getEmailCheckToken())
+                    .param("email", account.getEmail()))
+                    .andExpect(model().attributeDoesNotExist("error"))
+                    .andExpect(authenticated().withUsername("kevin"));
+
+            Account verified = accountRepository.findByEmail("test@email.com");
+            assertTrue(verified.isEmailVerified());
+            assertNotNull(verified.getJoinedAt());
+        } finally {
+            accountRepository.deleteAll();
+        }
+    }
+
     @DisplayName("회원 가입 화면 보이는지 테스트")
     @Test
     void signUpForm() throws Exception {
@@ -131,8 +155,53 @@ class AccountControllerTest {
         * */
         assertNotEquals(account.getPassword(), "12345678");
         assertNotNull(account.getEmailCheckToken()); // 토큰이 null이 아닌지 확인한다.
-        // 어떤 EmailMessage 타입이든 sendEmail()가 호출 되었는지 확인한다.
-        then(emailService).should().sendEmail(any(EmailMessage.class));
+        // 가입 확인 메일은 회원 가입과 같은 트랜잭션에서 아웃박스에 저장되고, 커밋된 다음에 발송된다.
+        assertTrue(outboxEmailRepository.findAll().stream().anyMatch(email -> email.getRecipient().equals("kevin@email.com")));
+    }
+
+    // 없는 이름의 기록(UnknownUsernameCache)은 가입이 커밋된 다음에 지워지므로 트랜잭션 없이 실행한다.
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    @DisplayName("로그인 - 이메일 또는 닉네임, 없던 이름이라도 가입하면 바로 로그인 된다")
+    @Test
+    void login_with_email_or_nickname() throws Exception {
+        try {
+            mockMvc.perform(formLogin().user("keesun").password("12345678"))
+                    .andExpect(unauthenticated());
+
+            mockMvc.perform(post("/sign-up")
+                    .param("nickname", "keesun")
+                    .param("email", "keesun@email.com")
+                    .param("password", "12345678")
+                    .with(csrf()))
+                    .andExpect(status().is3xxRedirection());
+
+            mockMvc.perform(formLogin().user("keesun").password("12345678"))
+                    .andExpect(authenticated().withUsername("keesun"));
+            mockMvc.perform(formLogin().user("keesun@email.com").password("12345678"))
+                    .andExpect(authenticated().withUsername("keesun"));
+        } finally {
+            outboxEmailRepository.deleteAll();
+            accountRepository.deleteAll();
+        }
+    }
+
+    @DisplayName("로그인할 때 작업 비용이 낮은 패스워드 해시를 다시 해싱한다")
+    @Test
+    void login_rehash_weaker_password() throws Exception {
+        Account account = Account.builder()
+                .nickname("keesun")
+                .email("keesun@email.com")
+                .password("{bcrypt}" + new BCryptPasswordEncoder(4).encode("12345678"))
+                .build();
+        accountRepository.save(account);
+
+        mockMvc.perform(formLogin().user("keesun").password("12345678"))
+                .andExpect(authenticated().withUsername("keesun"));
+
+        String rehashed = accountRepository.findUserAccountByNickname("keesun").getPassword();
+        assertFalse(rehashed.startsWith("{bcrypt}$2a$04$"));
+        assertFalse(passwordEncoder.upgradeEncoding(rehashed));
+        assertTrue(passwordEncoder.matches("12345678", rehashed));
     }
 
-}
\ No newline at end of file
+}
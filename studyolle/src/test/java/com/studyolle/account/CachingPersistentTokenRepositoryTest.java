@@ -0,0 +1,70 @@
+package com.studyolle.account;
+
+import com.studyolle.domain.PersistentLogins;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CachingPersistentTokenRepositoryTest {
+
+    @Autowired CachingPersistentTokenRepository tokenRepository;
+    @Autowired PersistentLoginsRepository persistentLoginsRepository;
+
+    @AfterEach
+    void afterEach() {
+        persistentLoginsRepository.deleteAll();
+    }
+
+    @DisplayName("자동 로그인으로 바뀐 토큰은 캐시에서 바로 보이고, DB에는 flush 할 때 쓴다")
+    @Test
+    void updateToken() {
+        tokenRepository.createNewToken(new PersistentRememberMeToken("kevin", "series", "token1", new Date()));
+        assertEquals("token1", persistentLoginsRepository.findById("series").orElseThrow().getToken());
+
+        tokenRepository.updateToken("series", "token2", new Date());
+        tokenRepository.updateToken("series", "token3", new Date());
+
+        assertEquals("token3", tokenRepository.getTokenForSeries("series").getTokenValue());
+        assertEquals("token1", persistentLoginsRepository.findById("series").orElseThrow().getToken());
+
+        tokenRepository.flush();
+
+        assertEquals("token3", persistentLoginsRepository.findById("series").orElseThrow().getToken());
+    }
+
+    @DisplayName("로그아웃 하면 캐시와 DB에서 사용자의 토큰을 모두 지운다")
+    @Test
+    void removeUserTokens() {
+        tokenRepository.createNewToken(new PersistentRememberMeToken("kevin", "series", "token1", new Date()));
+        tokenRepository.updateToken("series", "token2", new Date());
+
+        tokenRepository.removeUserTokens("kevin");
+        tokenRepository.flush();
+
+        assertNull(tokenRepository.getTokenForSeries("series"));
+        assertFalse(persistentLoginsRepository.existsById("series"));
+    }
+
+    @DisplayName("유효 기간이 지난 토큰은 주기적으로 지운다")
+    @Test
+    void purgeExpiredTokens() {
+        Date monthAgo = new Date(System.currentTimeMillis() - Duration.ofDays(30).toMillis());
+        tokenRepository.createNewToken(new PersistentRememberMeToken("kevin", "expired", "token", monthAgo));
+        tokenRepository.createNewToken(new PersistentRememberMeToken("kevin", "valid", "token", new Date()));
+
+        tokenRepository.purgeExpiredTokens();
+
+        assertNull(tokenRepository.getTokenForSeries("expired"));
+        assertTrue(persistentLoginsRepository.findById("valid").map(PersistentLogins::getToken).isPresent());
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.studyolle.account;
+
+import com.studyolle.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.util.NestedServletException;
+
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void afterEach() throws InterruptedException {
+        if (passwordHashingService != null) {
+            passwordHashingService.shutdown();
+        }
+    }
+
+    @DisplayName("목표 시간에 맞춰 작업 비용을 정한다")
+    @Test
+    void calibrate() {
+        assertEquals(4, PasswordHashingService.calibrate(Duration.ofNanos(1), 4, 6));
+        assertEquals(6, PasswordHashingService.calibrate(Duration.ofHours(1), 4, 6));
+    }
+
+    @DisplayName("작업 비용이 낮거나 {noop}인 해시는 다시 해싱한다")
+    @Test
+    void upgradeEncoding() {
+        AppProperties.Password password = new AppProperties.Password();
+        passwordHashingService = new PasswordHashingService(
+                PasswordHashingService.delegatingPasswordEncoder(5), password, meterRegistry);
+
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("12345678");
+        String current = passwordHashingService.encode("12345678");
+
+        assertTrue(current.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(passwordHashingService.matches("12345678", weaker));
+        assertTrue(passwordHashingService.upgradeEncoding(weaker));
+        assertTrue(passwordHashingService.upgradeEncoding("{noop}12345678"));
+        assertFalse(passwordHashingService.upgradeEncoding(current));
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+    }
+
+    @DisplayName("해싱 스레드와 대기 큐가 모두 차면 기다리지 않고 거절한다")
+    @Test
+    void reject_when_saturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        AppProperties.Password password = new AppProperties.Password();
+        password.setWorkers(1);
+        password.setQueueCapacity(1);
+        passwordHashingService = new PasswordHashingService(blocking, password, meterRegistry);
+
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            requests.submit(() -> passwordHashingService.encode("running"));
+            started.await(5, TimeUnit.SECONDS);
+            requests.submit(() -> passwordHashingService.encode("queued"));
+            while (meterRegistry.get("password.hashing.queued").gauge().value() < 1) {
+                Thread.sleep(10);
+            }
+
+            assertThrows(PasswordHashingRejectedException.class, () -> passwordHashingService.encode("rejected"));
+            assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+        } finally {
+            release.countDown();
+            requests.shutdown();
+            requests.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        assertEquals("accepted", passwordHashingService.encode("accepted"));
+    }
+
+    @DisplayName("해싱을 거절하면 503으로 응답한다")
+    @Test
+    void rejection_filter() throws Exception {
+        PasswordHashingRejectionFilter filter = new PasswordHashingRejectionFilter();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/sign-up"), response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) throws ServletException {
+                throw new NestedServletException("Request processing failed", new PasswordHashingRejectedException());
+            }
+        });
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+    }
+
+}
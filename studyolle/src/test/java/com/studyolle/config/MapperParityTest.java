@@ -0,0 +1,126 @@
+package com.studyolle.config;
+
+import com.studyolle.account.AccountMapper;
+import com.studyolle.account.SignUpForm;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import com.studyolle.settings.form.NicknameForm;
+import com.studyolle.settings.form.Notifications;
+import com.studyolle.settings.form.Profile;
+import com.studyolle.study.StudyMapper;
+import com.studyolle.study.form.StudyForm;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.NameTokenizers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 생성된 매퍼가 이전에 사용하던 ModelMapper 설정(UNDERSCORE 토크나이저)과 같은 결과를 만드는지 확인한다.
+ * */
+class MapperParityTest {
+
+    AccountMapper accountMapper = Mappers.getMapper(AccountMapper.class);
+
+    StudyMapper studyMapper = Mappers.getMapper(StudyMapper.class);
+
+    ModelMapper modelMapper = legacyModelMapper();
+
+    private static ModelMapper legacyModelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setDestinationNameTokenizer(NameTokenizers.UNDERSCORE)
+                .setSourceNameTokenizer(NameTokenizers.UNDERSCORE);
+        return modelMapper;
+    }
+
+    private static Account account() {
+        Account account = new Account();
+        account.setId(1L);
+        account.setNickname("kevin");
+        account.setEmail("kevin@email.com");
+        account.setPassword("{noop}12345678");
+        account.setBio("자기소개");
+        account.setUrl("https://studyolle.com");
+        account.setOccupation("개발자");
+        account.setLocation("서울");
+        account.setProfileImage("/images/0a1b2c");
+        account.setStudyCreatedByEmail(true);
+        account.setStudyUpdatedByWeb(false);
+        return account;
+    }
+
+    @DisplayName("회원 가입 폼 → Account (필드 기본 값 유지)")
+    @Test
+    void signUpForm() {
+        SignUpForm signUpForm = new SignUpForm();
+        signUpForm.setNickname("kevin");
+        signUpForm.setEmail("kevin@email.com");
+        signUpForm.setPassword("{bcrypt}encoded");
+
+        Account account = accountMapper.toAccount(signUpForm);
+
+        assertThat(account).usingRecursiveComparison().isEqualTo(modelMapper.map(signUpForm, Account.class));
+        assertThat(account.isStudyCreatedByWeb()).isTrue();
+    }
+
+    @DisplayName("프로필 폼 → Account (null인 항목은 지운다)")
+    @Test
+    void profile() {
+        Profile profile = new Profile();
+        profile.setBio("바뀐 자기소개");
+        profile.setOccupation("학생");
+
+        Account expected = account();
+        modelMapper.map(profile, expected);
+        Account account = account();
+        accountMapper.updateAccount(profile, account);
+
+        assertThat(account).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(account.getUrl()).isNull();
+        assertThat(account.getNickname()).isEqualTo("kevin");
+    }
+
+    @DisplayName("알림 폼 → Account")
+    @Test
+    void notifications() {
+        Notifications notifications = new Notifications();
+        notifications.setStudyEnrollmentResultByEmail(true);
+        notifications.setStudyUpdatedByWeb(true);
+
+        Account expected = account();
+        modelMapper.map(notifications, expected);
+        Account account = account();
+        accountMapper.updateAccount(notifications, account);
+
+        assertThat(account).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @DisplayName("Account → 프로필, 알림, 닉네임 폼")
+    @Test
+    void forms() {
+        Account account = account();
+
+        assertThat(accountMapper.toProfile(account)).isEqualTo(modelMapper.map(account, Profile.class));
+        assertThat(accountMapper.toNotifications(account)).isEqualTo(modelMapper.map(account, Notifications.class));
+        assertThat(accountMapper.toNicknameForm(account)).isEqualTo(modelMapper.map(account, NicknameForm.class));
+    }
+
+    @DisplayName("스터디 폼 → Study")
+    @Test
+    void studyForm() {
+        StudyForm studyForm = new StudyForm();
+        studyForm.setPath("spring-boot");
+        studyForm.setTitle("스프링 부트 스터디");
+        studyForm.setShortDescription("짧은 소개");
+        studyForm.setFullDescription("<p>긴 소개</p>");
+
+        Study study = studyMapper.toStudy(studyForm);
+
+        assertThat(study).usingRecursiveComparison().isEqualTo(modelMapper.map(studyForm, Study.class));
+        assertThat(study.getManagers()).isEmpty();
+    }
+
+}
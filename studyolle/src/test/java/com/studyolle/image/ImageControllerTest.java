@@ -0,0 +1,90 @@
+package com.studyolle.image;
+
+import com.studyolle.WithAccount;
+import com.studyolle.account.AccountRepository;
+import com.studyolle.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImageControllerTest {
+
+    // 1x1 크기의 PNG 이미지
+    private static final String DATA_URL = "data:image/png;base64,"
+            + "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNkYAAAAAYAAjCB0C8AAAAASUVORK5CYII=";
+
+    @Autowired MockMvc mockMvc;
+    @Autowired AccountRepository accountRepository;
+    @Autowired ImageService imageService;
+    @Autowired ImageRepository imageRepository;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @WithAccount("kevin")
+    @DisplayName("프로필 이미지 수정 - 이미지 저장소에 저장하고 참조만 남긴다")
+    @Test
+    void updateProfileImage() throws Exception {
+        mockMvc.perform(post("/settings/profile")
+                .param("profileImage", DATA_URL)
+                .with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        Account kevin = accountRepository.findByNickname("kevin");
+        assertTrue(kevin.getProfileImage().matches("^/images/[0-9a-f]{64}$"));
+
+        mockMvc.perform(get(kevin.getProfileImage()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public"));
+    }
+
+    @DisplayName("같은 이미지를 다시 저장하면 저장된 이미지를 그대로 사용한다")
+    @Test
+    void storeSameImage() {
+        long count = imageRepository.count();
+        String hash = imageService.store(DATA_URL);
+
+        assertEquals(hash, imageService.store(DATA_URL));
+        assertEquals(count + 1, imageRepository.count());
+        assertEquals("image/png", imageRepository.findById(hash).orElseThrow().getContentType());
+    }
+
+    @DisplayName("이미지 조회 - 브라우저가 가진 이미지라면 304 응답")
+    @Test
+    void viewImage_notModified() throws Exception {
+        String hash = "a".repeat(64);
+        mockMvc.perform(get("/images/" + hash)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""));
+    }
+
+    @DisplayName("이미지 조회 - 없는 이미지")
+    @Test
+    void viewImage_notFound() throws Exception {
+        mockMvc.perform(get("/images/" + "b".repeat(64)))
+                .andExpect(status().isNotFound());
+    }
+
+}
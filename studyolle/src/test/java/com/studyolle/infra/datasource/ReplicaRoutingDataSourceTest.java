@@ -0,0 +1,165 @@
+package com.studyolle.infra.datasource;
+
+import com.studyolle.domain.Tag;
+import com.studyolle.infra.jdbc.ConnectionLimitingDataSource;
+import com.studyolle.tag.TagRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.servlet.FilterChain;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * 서로 다른 두 H2 메모리 DB를 primary와 replica로 사용한다.
+ * 두 DB 사이에 복제가 없으므로, 조회 결과로 어느 DB에서 읽었는지 알 수 있다.
+ * 2차 캐시에서 찾으면 어느 DB에도 가지 않으므로 2차 캐시는 끈다.
+ * 커넥션 수 제한(ConnectionLimitingDataSource)이 풀마다 적용되는지 확인하기 위해 가상 스레드 설정을 켠다.
+ * */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "app.replica.url=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "app.replica.username=sa",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "app.threads.virtual=true",
+        "app.threads.max-connections=3",
+        "app.replica.maximum-pool-size=2"
+})
+@ExtendWith(OutputCaptureExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired TagRepository tagRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired DataSource dataSource;
+
+    // 복제 대신 replica에 직접 쓴다.
+    JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    // replica는 primary의 스키마를 복제 받는다고 가정하므로 애플리케이션이 시작되기 전에 같은 마이그레이션을 적용한다.
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+    }
+
+    @AfterEach
+    void afterEach() {
+        tagRepository.deleteAll();
+        replica.update("delete from tag");
+    }
+
+    @DisplayName("읽기 전용 트랜잭션은 replica에서, 쓰기 트랜잭션은 primary에서 실행한다")
+    @Test
+    void routeByReadOnly() {
+        tagRepository.save(Tag.builder().title("primary").build());
+        replica.update("insert into tag (id, title) values (1000, 'replica')");
+
+        assertNotNull(tagRepository.findByTitle("replica"));
+        assertNull(tagRepository.findByTitle("primary"));
+
+        Tag tag = new TransactionTemplate(transactionManager).execute(status -> tagRepository.findByTitle("primary"));
+        assertNotNull(tag);
+    }
+
+    // 트랜잭션이 끝나기 전에 커넥션을 돌려주면 HibernateJpaDialect가 읽기 전용 설정을 되돌릴 때 다른 커넥션을 가져오고 경고를 남긴다.
+    @DisplayName("읽기 전용 트랜잭션이 끝날 때 준비한 커넥션의 설정을 되돌린다")
+    @Test
+    void resetPreparedConnection(CapturedOutput output) {
+        tagRepository.findByTitle("replica");
+        new TransactionTemplate(transactionManager).execute(status -> tagRepository.findByTitle("primary"));
+
+        assertFalse(output.getOut().contains("not identical to originally prepared Connection"));
+    }
+
+    @DisplayName("가상 스레드를 사용하면 primary와 replica 풀의 커넥션 수를 따로 제한한다")
+    @Test
+    void limitConnectionsPerPool() throws Exception {
+        assertEquals(3, dataSource.unwrap(ConnectionLimitingDataSource.class).getAvailablePermits());
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        int replicaPermits = readOnly.execute(status -> {
+            try {
+                return dataSource.unwrap(ConnectionLimitingDataSource.class).getAvailablePermits();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertEquals(2, replicaPermits);
+    }
+
+    @DisplayName("쓰기 트랜잭션을 실행한 세션은 잠시 동안 읽기도 primary에서 한다")
+    @Test
+    void readYourWrites() throws Exception {
+        PrimaryStickinessFilter filter = new PrimaryStickinessFilter(Duration.ofSeconds(5));
+        MockHttpSession session = new MockHttpSession();
+
+        request(filter, session, () -> tagRepository.save(Tag.builder().title("Spring").build()));
+
+        assertNotNull(request(filter, session, () -> tagRepository.findByTitle("Spring")));
+        assertNull(request(filter, new MockHttpSession(), () -> tagRepository.findByTitle("Spring")));
+    }
+
+    @DisplayName("쓰기를 실행한 요청 안에서는 그 다음의 읽기도 primary에서 한다")
+    @Test
+    void readYourWritesInSameRequest() throws Exception {
+        PrimaryStickinessFilter filter = new PrimaryStickinessFilter(Duration.ofSeconds(5));
+
+        Tag tag = request(filter, new MockHttpSession(), () -> {
+            tagRepository.save(Tag.builder().title("JPA").build());
+            return tagRepository.findByTitle("JPA");
+        });
+
+        assertNotNull(tag);
+    }
+
+    @DisplayName("시간이 지나면 다시 replica에서 읽는다")
+    @Test
+    void stickinessExpires() throws Exception {
+        PrimaryStickinessFilter filter = new PrimaryStickinessFilter(Duration.ZERO);
+        MockHttpSession session = new MockHttpSession();
+
+        request(filter, session, () -> tagRepository.save(Tag.builder().title("Hibernate").build()));
+
+        assertNull(request(filter, session, () -> tagRepository.findByTitle("Hibernate")));
+    }
+
+    private static <T> T request(PrimaryStickinessFilter filter, MockHttpSession session, Handler<T> handler)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        AtomicReference<T> result = new AtomicReference<>();
+        FilterChain chain = (req, res) -> result.set(handler.handle());
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return result.get();
+    }
+
+    interface Handler<T> {
+        T handle();
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.studyolle.infra.jdbc;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(h2(), "test", 1, Duration.ofSeconds(5));
+
+    @DisplayName("허가 수 만큼만 커넥션을 가져가고, 커넥션을 닫으면 기다리던 스레드가 가져간다")
+    @Test
+    void waitForPermit() throws Exception {
+        Connection connection = dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailablePermits());
+
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (dataSource.getWaitingThreads() == 0) {
+            Thread.sleep(10);
+        }
+        assertFalse(waiting.isDone());
+
+        connection.close();
+        try (Connection next = waiting.get(5, TimeUnit.SECONDS)) {
+            assertFalse(next.isClosed());
+        }
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @DisplayName("기다리는 시간이 지나면 커넥션을 가져가지 못한다")
+    @Test
+    void timeout() throws Exception {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(h2(), "test", 1, Duration.ofMillis(50));
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @DisplayName("커넥션을 여러 번 닫아도 허가는 한 번만 돌려준다")
+    @Test
+    void closeTwice() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:connection-limiting");
+        return h2;
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.studyolle.infra.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatisticsFilterTest {
+
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(new SqlStatisticsDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:sql-statistics;DB_CLOSE_DELAY=-1", "sa", "")));
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void beforeEach() {
+        jdbcTemplate.execute("drop table if exists item");
+        jdbcTemplate.execute("create table item (id bigint primary key, name varchar(255))");
+    }
+
+    @DisplayName("요청마다 실행한 SQL 문장 수와 행 수를 메트릭과 응답 헤더로 남긴다")
+    @Test
+    void recordStatementsAndRows() throws Exception {
+        SqlStatisticsFilter filter = new SqlStatisticsFilter(meterRegistry, 5, true);
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            List<Object[]> items = Arrays.asList(new Object[]{1, "a"}, new Object[]{2, "b"}, new Object[]{3, "c"});
+            jdbcTemplate.batchUpdate("insert into item (id, name) values (?, ?)", items);
+            jdbcTemplate.queryForList("select name from item", String.class);
+        });
+
+        // JDBC 배치는 문장 하나로 센다. 행 수는 INSERT 한 3개와 조회한 3개
+        assertEquals("2", response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER));
+        assertEquals("6", response.getHeader(SqlStatisticsFilter.ROWS_HEADER));
+        assertNotNull(response.getHeader(SqlStatisticsFilter.TIME_HEADER));
+
+        SqlStatistics statistics = (SqlStatistics) request.getAttribute(SqlStatisticsFilter.ATTRIBUTE);
+        assertEquals(2, statistics.getStatements());
+        assertEquals(6, statistics.getRows());
+        assertEquals(2.0, meterRegistry.get("sql.request.statements").tag("uri", "/items").summary().totalAmount());
+        assertEquals(6.0, meterRegistry.get("sql.request.rows").tag("uri", "/items").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("sql.request.time").tag("uri", "/items").timer().count());
+    }
+
+    @DisplayName("같은 SELECT를 여러 번 실행하면 N+1로 의심한다")
+    @Test
+    void detectRepeatedQueries() throws Exception {
+        SqlStatisticsFilter filter = new SqlStatisticsFilter(meterRegistry, 5, false);
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FilterChain chain = (req, res) -> {
+            for (long id = 1; id <= 5; id++) {
+                jdbcTemplate.queryForList("select name from item where id = ?", String.class, id);
+            }
+        };
+        filter.doFilter(request, response, chain);
+
+        SqlStatistics statistics = (SqlStatistics) request.getAttribute(SqlStatisticsFilter.ATTRIBUTE);
+        assertEquals(5, statistics.getRepeatedQueries(5).get("select name from item where id = ?"));
+        assertEquals(1.0, meterRegistry.get("sql.request.repeated").tag("uri", "/items").counter().count());
+        assertNull(response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER));
+    }
+
+    @DisplayName("요청 밖에서 실행한 SQL은 기록하지 않는다")
+    @Test
+    void ignoreOutsideRequest() {
+        jdbcTemplate.update("insert into item (id, name) values (1, 'a')");
+
+        assertNull(SqlStatistics.current());
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items");
+        return request;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.studyolle.infra.jdbc;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.MatcherAssert;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * 요청이 실행한 SQL(SqlStatisticsFilter가 남긴 SqlStatistics)로 쿼리 예산을 확인한다.
+ *   mockMvc.perform(get("/study/test-path"))
+ *           .andExpect(sqlStatements(lessThanOrEqualTo(5)))
+ *           .andExpect(noRepeatedQueries());
+ * 실패하면 실행한 SQL과 횟수를 보여준다.
+ * */
+public final class SqlStatisticsResultMatchers {
+
+    // 같은 SELECT를 이 횟수 이상 실행하면 N+1로 본다.
+    private static final int REPEATED_QUERY_THRESHOLD = 3;
+
+    private SqlStatisticsResultMatchers() {
+    }
+
+    public static ResultMatcher sqlStatements(Matcher<? super Integer> matcher) {
+        return result -> {
+            SqlStatistics statistics = statistics(result);
+            MatcherAssert.assertThat("SQL statements\n" + describe(statistics.getExecutions()),
+                    statistics.getStatements(), matcher);
+        };
+    }
+
+    public static ResultMatcher noRepeatedQueries() {
+        return result -> {
+            Map<String, Integer> repeatedQueries = statistics(result).getRepeatedQueries(REPEATED_QUERY_THRESHOLD);
+            assertTrue(repeatedQueries.isEmpty(), () -> "N+1 queries\n" + describe(repeatedQueries));
+        };
+    }
+
+    private static SqlStatistics statistics(MvcResult result) {
+        SqlStatistics statistics = (SqlStatistics) result.getRequest().getAttribute(SqlStatisticsFilter.ATTRIBUTE);
+        assertNotNull(statistics, "SqlStatisticsFilter did not run");
+        return statistics;
+    }
+
+    private static String describe(Map<String, Integer> executions) {
+        return executions.entrySet().stream()
+                .map(e -> e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.studyolle.infra.jpa;
+
+import com.studyolle.account.AccountRepository;
+import com.studyolle.domain.Account;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.jpa.lazy-loading-guard=true")
+class LazyLoadingGuardTest {
+
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired AccountRepository accountRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    Long accountId;
+
+    @BeforeEach
+    void beforeEach() {
+        Account account = new Account();
+        account.setNickname("kevin");
+        account.setEmail("kevin@email.com");
+        account.setPassword("12345678");
+        accountId = accountRepository.save(account).getId();
+    }
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @DisplayName("영속성 컨텍스트가 열려 있어도 트랜잭션 밖에서 지연 로딩하면 예외를 던진다")
+    @Test
+    void lazyLoadingOutsideTransaction() {
+        // open-in-view처럼 요청 동안 EntityManager를 열어 둔다.
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            Account account = accountRepository.findById(accountId).orElseThrow();
+
+            LazyInitializationException exception = assertThrows(LazyInitializationException.class,
+                    () -> account.getTags().size());
+            assertTrue(exception.getMessage().contains("Account.tags"));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    @DisplayName("트랜잭션 안에서는 지연 로딩할 수 있다")
+    @Test
+    void lazyLoadingInTransaction() {
+        Integer tagCount = transactionTemplate.execute(status ->
+                accountRepository.findById(accountId).orElseThrow().getTags().size());
+
+        assertEquals(0, tagCount);
+    }
+
+}
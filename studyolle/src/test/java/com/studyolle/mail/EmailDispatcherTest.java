@@ -0,0 +1,116 @@
+package com.studyolle.mail;
+
+import com.studyolle.domain.OutboxEmail;
+import com.studyolle.domain.OutboxEmailStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+
+@SpringBootTest(properties = {
+        "spring.datasource.generate-unique-name=true",
+        "app.mail.retry-backoff=100ms",
+        "app.mail.poll-interval=100"
+})
+class EmailDispatcherTest {
+
+    @Autowired EmailOutboxService emailOutboxService;
+    @Autowired OutboxEmailRepository outboxEmailRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @MockBean EmailService emailService;
+
+    @AfterEach
+    void afterEach() {
+        outboxEmailRepository.deleteAll();
+    }
+
+    @DisplayName("트랜잭션이 커밋되면 메일을 발송한다")
+    @Test
+    void sendAfterCommit() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> emailOutboxService.enqueue(emailMessage("kevin@email.com")));
+
+        then(emailService).should(timeout(5000)).sendEmails(anyList());
+        OutboxEmail outboxEmail = awaitStatus(OutboxEmailStatus.SENT);
+        assertEquals(1, outboxEmail.getAttempts());
+        assertNotNull(outboxEmail.getSentAt());
+    }
+
+    @DisplayName("트랜잭션이 롤백되면 메일을 발송하지 않는다")
+    @Test
+    void notSendAfterRollback() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailOutboxService.enqueue(emailMessage("kevin@email.com"));
+            status.setRollbackOnly();
+        });
+
+        Thread.sleep(300);
+        then(emailService).should(never()).sendEmails(anyList());
+        assertEquals(0, outboxEmailRepository.count());
+    }
+
+    @DisplayName("발송에 실패하면 잠시 뒤에 다시 보낸다")
+    @Test
+    void retryWithBackoff() throws InterruptedException {
+        given(emailService.sendEmails(anyList()))
+                .willAnswer(invocation -> invocation.getArgument(0)) // 처음에는 모두 실패
+                .willReturn(List.of());
+
+        transactionTemplate.executeWithoutResult(status -> emailOutboxService.enqueue(emailMessage("kevin@email.com")));
+
+        OutboxEmail outboxEmail = awaitStatus(OutboxEmailStatus.SENT);
+        assertEquals(2, outboxEmail.getAttempts());
+    }
+
+    @DisplayName("보존 기간이 지난 SENT, FAILED 메일만 지운다")
+    @Test
+    void purgeCompleted() {
+        LocalDateTime old = LocalDateTime.now().minusDays(8);
+        outboxEmailRepository.saveAll(List.of(
+                outboxEmail("sent@email.com", OutboxEmailStatus.SENT, old),
+                outboxEmail("failed@email.com", OutboxEmailStatus.FAILED, old),
+                outboxEmail("pending@email.com", OutboxEmailStatus.PENDING, old),
+                outboxEmail("recent@email.com", OutboxEmailStatus.SENT, LocalDateTime.now())));
+
+        assertEquals(2, emailOutboxService.purgeCompleted());
+        assertEquals(Set.of("pending@email.com", "recent@email.com"), outboxEmailRepository.findAll().stream()
+                .map(OutboxEmail::getRecipient).collect(Collectors.toSet()));
+    }
+
+    private OutboxEmail outboxEmail(String recipient, OutboxEmailStatus status, LocalDateTime createdAt) {
+        // 발송 대상이 되지 않도록 PENDING 메일의 다음 발송 시각을 먼 미래로 둔다.
+        return OutboxEmail.builder().recipient(recipient).subject("제목").message("내용").status(status)
+                .nextAttemptAt(LocalDateTime.now().plusDays(1)).createdAt(createdAt).build();
+    }
+
+    private OutboxEmail awaitStatus(OutboxEmailStatus status) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            List<OutboxEmail> outboxEmails = outboxEmailRepository.findAll();
+            if (outboxEmails.size() == 1 && outboxEmails.get(0).getStatus() == status) {
+                return outboxEmails.get(0);
+            }
+            Thread.sleep(50);
+        }
+        return fail("메일이 " + status + " 상태가 되지 않았습니다.");
+    }
+
+    private EmailMessage emailMessage(String to) {
+        return EmailMessage.builder().to(to).subject("제목").message("내용").build();
+    }
+
+}
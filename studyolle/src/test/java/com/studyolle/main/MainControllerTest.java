@@ -3,6 +3,13 @@ package com.studyolle.main;
 import com.studyolle.account.AccountRepository;
 import com.studyolle.account.AccountService;
 import com.studyolle.account.SignUpForm;
+import com.studyolle.WithAccount;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import com.studyolle.domain.Tag;
+import com.studyolle.study.StudyRepository;
+import com.studyolle.study.StudyService;
+import com.studyolle.tag.TagRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,9 +23,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -28,6 +38,9 @@ class MainControllerTest {
     @Autowired AccountService accountService;
     @Autowired
     AccountRepository accountRepository;
+    @Autowired StudyService studyService;
+    @Autowired StudyRepository studyRepository;
+    @Autowired TagRepository tagRepository;
 
     // 모든 테스트를 실행 할 때 마다 SignUpForm를 만든다.
     @BeforeEach
@@ -42,7 +55,9 @@ class MainControllerTest {
     // 이메일이 중복되어 생성되지 않도록 삭제를 한다.
     @AfterEach
     void afterEach(){
+        studyRepository.deleteAll();
         accountRepository.deleteAll();
+        tagRepository.deleteAll();
     }
 
     @DisplayName("이메일로 로그인 성공")
@@ -95,4 +110,31 @@ class MainControllerTest {
                 .andExpect(unauthenticated());
     }
 
-}
\ No newline at end of file
+    @WithAccount("keesun")
+    @DisplayName("관심 태그의 모집 중인 스터디를 추천")
+    @Test
+    void home_recommendations() throws Exception {
+        Tag spring = tagRepository.save(Tag.builder().title("spring-recommend").build());
+        Account keesun = accountRepository.findByNickname("keesun");
+        accountService.addTag(keesun.getId(), spring.getId());
+
+        Study recruiting = new Study();
+        recruiting.setPath("recruiting");
+        recruiting.setTitle("모집 중인 스터디");
+        recruiting.setPublished(true);
+        recruiting.setRecruiting(true);
+        recruiting.getTags().add(spring);
+        studyService.createNewStudy(recruiting, accountRepository.findByNickname("kevin"));
+
+        Study draft = new Study();
+        draft.setPath("draft");
+        draft.setTitle("공개 전 스터디");
+        draft.getTags().add(spring);
+        studyService.createNewStudy(draft, accountRepository.findByNickname("kevin"));
+
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("studyList", contains(hasProperty("path", is("recruiting")))));
+    }
+
+}
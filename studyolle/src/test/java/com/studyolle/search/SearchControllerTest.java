@@ -0,0 +1,128 @@
+package com.studyolle.search;
+
+import com.studyolle.WithAccount;
+import com.studyolle.account.AccountRepository;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import com.studyolle.domain.Tag;
+import com.studyolle.study.StudyRepository;
+import com.studyolle.study.StudyService;
+import com.studyolle.tag.TagRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SearchControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired StudyService studyService;
+    @Autowired StudyRepository studyRepository;
+    @Autowired AccountRepository accountRepository;
+    @Autowired TagRepository tagRepository;
+
+    @AfterEach
+    void afterEach() {
+        studyRepository.deleteAll();
+        accountRepository.deleteAll();
+        tagRepository.deleteAll();
+    }
+
+    @WithAccount("kevin")
+    @DisplayName("스터디 검색 - 만든 스터디는 커밋된 다음에 검색된다")
+    @Test
+    void searchStudy() throws Exception {
+        Study study = new Study();
+        study.setPath("kotlin-study");
+        study.setTitle("코틀린 입문 스터디");
+        study.setShortDescription("코틀린을 처음 공부합니다.");
+        study.setPublished(true);
+        Account kevin = accountRepository.findByNickname("kevin");
+        studyService.createNewStudy(study, kevin);
+
+        mockMvc.perform(get("/search/study").param("keyword", "코틀린입문"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("search"))
+                .andExpect(model().attribute("studyPage", hasProperty("totalElements", is(1L))));
+    }
+
+    @DisplayName("스터디 검색 - 공개하지 않은 스터디는 로그인하지 않은 사용자가 찾을 수 없다")
+    @Test
+    void searchStudy_anonymousNeverFindsDraft() throws Exception {
+        Account kevin = accountRepository.save(Account.builder()
+                .nickname("kevin")
+                .email("kevin@email.com")
+                .password("12345678")
+                .build());
+        studyService.createNewStudy(study("draft-study", "하스켈 모임 준비 중", false), kevin);
+        studyService.createNewStudy(study("open-study", "하스켈 모임", true), kevin);
+
+        mockMvc.perform(get("/search/study").param("keyword", "하스켈"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("studyPage", hasProperty("totalElements", is(1L))))
+                .andExpect(model().attribute("studyPage", hasProperty("content",
+                        contains(hasProperty("path", is("open-study"))))));
+
+        // 검색어가 없으면 최근 스터디를 보여준다.
+        mockMvc.perform(get("/search/study"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("studyPage", hasProperty("content",
+                        everyItem(hasProperty("published", is(true))))));
+    }
+
+    @DisplayName("스터디 검색 - 공개한 스터디는 검색되고, 지운 스터디는 검색되지 않는다")
+    @Test
+    void searchStudy_publishAndDelete() throws Exception {
+        Account kevin = accountRepository.save(Account.builder()
+                .nickname("kevin")
+                .email("kevin@email.com")
+                .password("12345678")
+                .build());
+        Study study = studyService.createNewStudy(study("elixir-study", "엘릭서 스터디", false), kevin);
+
+        mockMvc.perform(get("/search/study").param("keyword", "엘릭서"))
+                .andExpect(model().attribute("studyPage", hasProperty("totalElements", is(0L))));
+
+        study.setPublished(true);
+        study = studyRepository.save(study);
+        mockMvc.perform(get("/search/study").param("keyword", "엘릭서"))
+                .andExpect(model().attribute("studyPage", hasProperty("totalElements", is(1L))));
+
+        // 태그만 바꿔도 색인에 반영된다.
+        study.getTags().add(tagRepository.save(Tag.builder().title("elixir").build()));
+        studyRepository.save(study);
+        mockMvc.perform(get("/search/study").param("keyword", "엘릭서").param("tag", "elixir"))
+                .andExpect(model().attribute("studyPage", hasProperty("totalElements", is(1L))));
+
+        studyRepository.deleteById(study.getId());
+        mockMvc.perform(get("/search/study").param("keyword", "엘릭서"))
+                .andExpect(model().attribute("studyPage", hasProperty("totalElements", is(0L))));
+    }
+
+    @DisplayName("스터디 검색 - 로그인하지 않아도 검색할 수 있다")
+    @Test
+    void searchStudy_anonymous() throws Exception {
+        mockMvc.perform(get("/search/study").param("keyword", "없는스터디"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("studyPage", hasProperty("totalElements", is(0L))));
+    }
+
+    private static Study study(String path, String title, boolean published) {
+        Study study = new Study();
+        study.setPath(path);
+        study.setTitle(title);
+        study.setShortDescription(title);
+        study.setPublished(published);
+        return study;
+    }
+
+}
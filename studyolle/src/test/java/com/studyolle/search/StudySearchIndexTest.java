@@ -0,0 +1,121 @@
+package com.studyolle.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudySearchIndexTest {
+
+    StudySearchIndex index = new StudySearchIndex();
+
+    private StudyDocument.StudyDocumentBuilder study(long id, String title) {
+        return StudyDocument.builder().studyId(id).title(title).shortDescription("").fullDescription("");
+    }
+
+    @DisplayName("한글은 두 글자씩, 영문과 숫자는 단어 단위로 나눈다")
+    @Test
+    void tokenize() {
+        assertEquals(List.of("스프", "프링", "링부", "부트", "jpa", "2"), Tokenizer.tokenize("스프링부트 JPA-2"));
+        assertEquals(List.of("자", "바"), Tokenizer.tokenize("자 바"));
+        assertEquals(List.of("스프", "프링", "스", "프", "링", "링부", "부트", "부", "트"), Tokenizer.tokenizeForIndex("스프링 부트"));
+        assertEquals(List.of("스터", "터디", "스", "터", "디"), Tokenizer.tokenizeHtmlForIndex("<p>스터디&nbsp;</p>"));
+    }
+
+    @DisplayName("검색어에 한 글자 단어가 있어도 여러 글자 단어에서 찾는다")
+    @Test
+    void search_oneSyllableWord() {
+        index.add(study(1, "책읽기 스터디").build());
+        index.add(study(2, "영어 스터디").build());
+
+        assertEquals(List.of(1L), index.search("책 스터디", null, null, 0, 10).getStudyIds());
+        assertEquals(List.of(1L), index.search("책", null, null, 0, 10).getStudyIds());
+    }
+
+    @DisplayName("띄어쓰기나 조사가 달라도 찾을 수 있고, 제목에 있는 스터디가 먼저 나온다")
+    @Test
+    void search_ranking() {
+        index.add(study(1, "자바 스터디").fullDescription("<p>스프링부트를 공부합니다</p>").build());
+        index.add(study(2, "스프링 부트 스터디").build());
+        index.add(study(3, "파이썬 스터디").build());
+
+        SearchResult result = index.search("스프링부트", null, null, 0, 10);
+        assertEquals(List.of(2L, 1L), result.getStudyIds());
+
+        result = index.search("스프링", null, null, 0, 10);
+        assertEquals(List.of(2L, 1L), result.getStudyIds());
+        assertEquals(2, result.getTotal());
+
+        assertTrue(index.search("루비", null, null, 0, 10).getStudyIds().isEmpty());
+    }
+
+    @DisplayName("태그와 지역으로 한정해서 찾는다")
+    @Test
+    void search_filter() {
+        index.add(study(1, "스프링 스터디").tag("Spring").zone(new StudyDocument.Zone(10L, "Seoul", "서울특별시")).build());
+        index.add(study(2, "스프링 스터디").tag("JPA").zone(new StudyDocument.Zone(20L, "Busan", "부산광역시")).build());
+
+        assertEquals(List.of(1L), index.search("스프링", "spring", null, 0, 10).getStudyIds());
+        assertEquals(List.of(2L), index.search(null, null, 20L, 0, 10).getStudyIds());
+        assertEquals(List.of(2L), index.search("부산", null, null, 0, 10).getStudyIds());
+        assertTrue(index.search("스프링", "JPA", 10L, 0, 10).getStudyIds().isEmpty());
+    }
+
+    @DisplayName("페이지 단위로 찾고, 검색어가 없다면 최근에 추가한 스터디부터 보여준다")
+    @Test
+    void search_paging() {
+        for (long id = 1; id <= 25; id++) {
+            index.add(study(id, "스터디 " + id).build());
+        }
+
+        SearchResult lastPage = index.search("스터디", null, null, 2, 10);
+        assertEquals(5, lastPage.getStudyIds().size());
+        assertEquals(25, lastPage.getTotal());
+
+        assertEquals(List.of(25L, 24L, 23L), index.search("", null, null, 0, 3).getStudyIds());
+        assertEquals(List.of(22L, 21L, 20L), index.search(null, null, null, 1, 3).getStudyIds());
+
+        // 아주 큰 페이지를 요청해도 넘치지 않고 빈 페이지를 보여준다.
+        SearchResult overflow = index.search("스터디", null, null, Integer.MAX_VALUE, 10);
+        assertTrue(overflow.getStudyIds().isEmpty());
+        assertEquals(25, overflow.getTotal());
+        assertTrue(index.search(null, null, null, Integer.MAX_VALUE, 10).getStudyIds().isEmpty());
+    }
+
+    @DisplayName("다시 추가한 스터디는 새로운 내용으로 찾는다")
+    @Test
+    void add_again() {
+        index.add(study(1, "자바 스터디").build());
+        index.add(study(1, "코틀린 스터디").build());
+
+        assertTrue(index.search("자바", null, null, 0, 10).getStudyIds().isEmpty());
+        assertEquals(List.of(1L), index.search("코틀린", null, null, 0, 10).getStudyIds());
+        assertEquals(1, index.size());
+
+        index.remove(1L);
+        assertTrue(index.search("코틀린", null, null, 0, 10).getStudyIds().isEmpty());
+    }
+
+    @DisplayName("다시 추가하거나 뺀 스터디가 쌓여서 색인을 압축해도 같은 결과를 찾는다")
+    @Test
+    void compact() {
+        index.add(study(1, "자바 스터디").build());
+        index.add(study(2, "코틀린 스터디").build());
+        index.add(study(3, "스칼라 스터디").build());
+        for (int i = 0; i < StudySearchIndex.COMPACT_MIN_DELETED * 2; i++) {
+            index.add(study(2, i % 2 == 0 ? "코틀린 입문 스터디" : "코틀린 스터디").build());
+        }
+        index.remove(3L);
+        index.add(study(4, "하스켈 스터디").build());
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(4L, 2L, 1L), index.search("스터디", null, null, 0, 10).getStudyIds());
+        assertEquals(List.of(2L), index.search("코틀린", null, null, 0, 10).getStudyIds());
+        assertTrue(index.search("입문", null, null, 0, 10).getStudyIds().isEmpty());
+        assertTrue(index.search("스칼라", null, null, 0, 10).getStudyIds().isEmpty());
+        assertEquals(List.of(4L, 2L, 1L), index.search(null, null, null, 0, 10).getStudyIds());
+    }
+
+}
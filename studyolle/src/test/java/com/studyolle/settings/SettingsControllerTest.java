@@ -8,9 +8,13 @@ import com.studyolle.domain.Account;
 import com.studyolle.domain.Tag;
 import com.studyolle.domain.Zone;
 import com.studyolle.settings.form.ZoneForm;
+import com.studyolle.settings.form.InterestsForm;
 import com.studyolle.settings.form.TagForm;
+import com.studyolle.tag.TagCreatedEvent;
 import com.studyolle.tag.TagRepository;
+import com.studyolle.tag.TagService;
 import com.studyolle.zone.ZoneRepository;
+import org.hibernate.Cache;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,13 +22,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.util.List;
+
 import static com.studyolle.settings.SettingsController.*;
 import static com.studyolle.settings.SettingsController.PASSWORD;
+import static com.studyolle.infra.jdbc.SqlStatisticsResultMatchers.noRepeatedQueries;
+import static com.studyolle.infra.jdbc.SqlStatisticsResultMatchers.sqlStatements;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -41,31 +54,46 @@ class SettingsControllerTest {
     @Autowired PasswordEncoder passwordEncoder;
     @Autowired ObjectMapper objectMapper;
     @Autowired TagRepository tagRepository;
+    @Autowired TagService tagService;
     @Autowired AccountService accountService;
     @Autowired ZoneRepository zoneRepository;
+    @Autowired EntityManager entityManager;
 
     private Zone testZone = Zone.builder().city("test").localNameOfCity("테스트시").province("테스트주").build();
 
     @BeforeEach
     void beforeEach() {
-        zoneRepository.save(testZone);
+        // 관심 지역은 조인 테이블에 직접 INSERT 하므로 지역을 먼저 DB에 반영한다.
+        zoneRepository.saveAndFlush(testZone);
     }
 
     @AfterEach
     void afterEach() {
+        // 태그는 조인 테이블에 직접 INSERT 하므로, 이미 읽은 계정의 tags 대신 DB에서 다시 읽어서 지우도록 한다.
+        entityManager.clear();
         accountRepository.deleteAll();
-        zoneRepository.deleteAll();
+        // 트랜잭션 없이 실행하는 테스트도 있으므로 기본 지역은 남겨둔다.
+        zoneRepository.deleteById(testZone.getId());
+        // JDBC로 추가한 태그를 조회하면 롤백하기 전에 2차 캐시(natural id 캐시 포함)에 들어가므로 비운다.
+        entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class).evictAllRegions();
     }
 
     @WithAccount("kevin")
     @DisplayName("계정의 지역 정보 수정 폼")
     @Test
     void updateZonesForm() throws Exception {
+        Account kevin = accountRepository.findByNickname("kevin");
+        zoneRepository.findAll().stream().limit(10).forEach(zone -> accountService.addZone(kevin.getId(), zone.getId()));
+        // 준비한 데이터를 먼저 DB에 반영해서 요청이 실행한 SQL만 센다.
+        entityManager.flush();
+
         mockMvc.perform(get(ROOT + SETTINGS + ZONES))
                 .andExpect(view().name(SETTINGS + ZONES))
                 .andExpect(model().attributeExists("account"))
                 .andExpect(model().attributeExists("whitelist"))
-                .andExpect(model().attributeExists("zones"));
+                .andExpect(model().attribute("zones", hasSize(10)))
+                .andExpect(sqlStatements(lessThanOrEqualTo(2)))
+                .andExpect(noRepeatedQueries());
     }
 
     @WithAccount("kevin")
@@ -83,7 +111,7 @@ class SettingsControllerTest {
 
         Account kevin = accountRepository.findByNickname("kevin");
         Zone zone = zoneRepository.findByCityAndProvince(testZone.getCity(), testZone.getProvince());
-        assertTrue(kevin.getZones().contains(zone));
+        assertTrue(accountRepository.findZoneIds(kevin.getId()).contains(zone.getId()));
     }
 
     @WithAccount("kevin")
@@ -92,7 +120,7 @@ class SettingsControllerTest {
     void removeZone() throws Exception {
         Account kevin = accountRepository.findByNickname("kevin");
         Zone zone = zoneRepository.findByCityAndProvince(testZone.getCity(), testZone.getProvince());
-        accountService.addZone(kevin, zone);
+        accountService.addZone(kevin.getId(), zone.getId());
 
         ZoneForm zoneForm = new ZoneForm();
         zoneForm.setZoneName(testZone.toString());
@@ -103,18 +131,72 @@ class SettingsControllerTest {
                 .with(csrf()))
                 .andExpect(status().isOk());
 
-        assertFalse(kevin.getZones().contains(zone));
+        assertFalse(accountRepository.findZoneIds(kevin.getId()).contains(zone.getId()));
     }
 
     @WithAccount("kevin")
     @DisplayName("계정의 태그 수정 폼")
     @Test
     void updateTagsForm() throws Exception {
+        Account kevin = accountRepository.findByNickname("kevin");
+        for (int i = 0; i < 10; i++) {
+            accountService.addTag(kevin.getId(), tagService.getOrCreateTagId("tag" + i));
+        }
+        // 준비한 데이터를 먼저 DB에 반영해서 요청이 실행한 SQL만 센다.
+        entityManager.flush();
+
         mockMvc.perform(get(ROOT + SETTINGS + TAGS))
                 .andExpect(view().name(SETTINGS + TAGS))
                 .andExpect(model().attributeExists("account"))
                 .andExpect(model().attributeExists("whitelist"))
-                .andExpect(model().attributeExists("tags"));
+                .andExpect(model().attribute("tags", hasSize(10)))
+                .andExpect(sqlStatements(lessThanOrEqualTo(2)))
+                .andExpect(noRepeatedQueries());
+    }
+
+    @WithAccount("kevin")
+    @DisplayName("태그 화이트리스트 조회 - 바뀌지 않았다면 304 응답")
+    @Test
+    void tagWhitelist() throws Exception {
+        String eTag = mockMvc.perform(get(ROOT + SETTINGS + TAGS + WHITELIST))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(ROOT + SETTINGS + TAGS + WHITELIST)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @DisplayName("태그 화이트리스트 - 화이트리스트를 만든 다음에 도착한 태그 생성 이벤트는 태그를 다시 추가하지 않는다")
+    @Test
+    void tagWhitelist_alreadyContainsCreatedTag() throws Exception {
+        tagRepository.save(Tag.builder().title("whitelisted").build());
+        WhitelistService whitelistService = new WhitelistService(tagRepository, zoneRepository, objectMapper);
+        Whitelist whitelist = whitelistService.getTagWhitelist();
+
+        whitelistService.onTagCreated(new TagCreatedEvent("whitelisted"));
+        assertSame(whitelist, whitelistService.getTagWhitelist());
+
+        whitelistService.onTagCreated(new TagCreatedEvent("created"));
+        Whitelist appended = whitelistService.getTagWhitelist();
+        assertTrue(appended.contains("created"));
+        assertEquals(1, objectMapper.readValue(appended.getJson(), List.class).stream()
+                .filter("whitelisted"::equals).count());
+    }
+
+    @WithAccount("kevin")
+    @DisplayName("지역 화이트리스트 조회 - 현재 버전을 요청하면 오래 캐시한다")
+    @Test
+    void zoneWhitelist() throws Exception {
+        String whitelistUrl = (String) mockMvc.perform(get(ROOT + SETTINGS + ZONES))
+                .andReturn().getModelAndView().getModel().get("whitelist");
+
+        mockMvc.perform(get(whitelistUrl))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").exists())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, private"));
     }
 
     @WithAccount("kevin")
@@ -133,7 +215,8 @@ class SettingsControllerTest {
         Tag newTag = tagRepository.findByTitle("newTag");
         assertNotNull(newTag);
         Account kevin = accountRepository.findByNickname("kevin");
-        assertTrue(kevin.getTags().contains(newTag));
+        // 태그는 조인 테이블에 직접 INSERT 하므로 이미 읽은 kevin의 tags가 아니라 DB에서 확인한다.
+        assertTrue(accountRepository.findTagIds(kevin.getId()).contains(newTag.getId()));
     }
 
     @WithAccount("kevin")
@@ -141,10 +224,11 @@ class SettingsControllerTest {
     @Test
     void removeTag() throws Exception {
         Account kevin = accountRepository.findByNickname("kevin");
-        Tag newTag = tagRepository.save(Tag.builder().title("newTag").build());
-        accountService.addTag(kevin, newTag);
-
-        assertTrue(kevin.getTags().contains(newTag));
+        Long tagId = tagService.getOrCreateTagId("newTag");
+        accountService.addTag(kevin.getId(), tagId);
+        assertTrue(accountRepository.findTagIds(kevin.getId()).contains(tagId));
+        // 요청에서 kevin의 tags를 DB에서 다시 읽도록 한다.
+        entityManager.clear();
 
         TagForm tagForm = new TagForm();
         tagForm.setTagTitle("newTag");
@@ -155,7 +239,82 @@ class SettingsControllerTest {
                 .with(csrf()))
                 .andExpect(status().isOk());
 
-        assertFalse(kevin.getTags().contains(newTag));
+        assertFalse(accountRepository.findTagIds(kevin.getId()).contains(tagId));
+    }
+
+    @WithAccount("kevin")
+    @DisplayName("관심 태그, 지역 변경을 한 번에 반영")
+    @Test
+    void updateInterests() throws Exception {
+        Account kevin = accountRepository.findByNickname("kevin");
+        Long removedTagId = tagService.getOrCreateTagId("removedTag");
+        accountService.addTag(kevin.getId(), removedTagId);
+        entityManager.flush();
+
+        InterestsForm interestsForm = new InterestsForm();
+        interestsForm.getChanges().add(change(InterestsForm.Type.TAG, InterestsForm.Action.ADD, "newTag"));
+        interestsForm.getChanges().add(change(InterestsForm.Type.TAG, InterestsForm.Action.ADD, "tempTag"));
+        interestsForm.getChanges().add(change(InterestsForm.Type.TAG, InterestsForm.Action.REMOVE, "tempTag"));
+        interestsForm.getChanges().add(change(InterestsForm.Type.TAG, InterestsForm.Action.REMOVE, "removedTag"));
+        interestsForm.getChanges().add(change(InterestsForm.Type.ZONE, InterestsForm.Action.ADD, testZone.toString()));
+
+        mockMvc.perform(post(ROOT + SETTINGS + INTERESTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(interestsForm))
+                .with(csrf()))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of("newTag"), accountRepository.findTagTitles(kevin.getId()));
+        assertEquals(List.of(testZone.getId()), accountRepository.findZoneIds(kevin.getId()));
+    }
+
+    // 요청의 트랜잭션이 롤백되는 것을 확인하기 위해 테스트 트랜잭션 없이 실행한다.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithAccount("kevin")
+    @DisplayName("관심 태그, 지역 변경 - 없는 지역이 있으면 아무것도 반영하지 않는다")
+    @Test
+    void updateInterests_unknownZone() throws Exception {
+        Account kevin = accountRepository.findByNickname("kevin");
+
+        InterestsForm interestsForm = new InterestsForm();
+        interestsForm.getChanges().add(change(InterestsForm.Type.ZONE, InterestsForm.Action.ADD, testZone.toString()));
+        interestsForm.getChanges().add(change(InterestsForm.Type.ZONE, InterestsForm.Action.ADD, "Nowhere(없는시)/None"));
+
+        mockMvc.perform(post(ROOT + SETTINGS + INTERESTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(interestsForm))
+                .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        assertTrue(accountRepository.findZoneIds(kevin.getId()).isEmpty());
+    }
+
+    @WithAccount("kevin")
+    @DisplayName("관심 태그, 지역 변경 - 지역 이름의 형식이 잘못되면 400")
+    @Test
+    void updateInterests_invalidZone() throws Exception {
+        Account kevin = accountRepository.findByNickname("kevin");
+
+        for (String zoneName : List.of("Seoul", "Seoul(서울특별시", "(서울특별시)/none", "Seoul(서울특별시)/")) {
+            InterestsForm interestsForm = new InterestsForm();
+            interestsForm.getChanges().add(change(InterestsForm.Type.ZONE, InterestsForm.Action.ADD, zoneName));
+
+            mockMvc.perform(post(ROOT + SETTINGS + INTERESTS)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(interestsForm))
+                    .with(csrf()))
+                    .andExpect(status().isBadRequest());
+        }
+
+        assertTrue(accountRepository.findZoneIds(kevin.getId()).isEmpty());
+    }
+
+    private static InterestsForm.Change change(InterestsForm.Type type, InterestsForm.Action action, String value) {
+        InterestsForm.Change change = new InterestsForm.Change();
+        change.setType(type);
+        change.setAction(action);
+        change.setValue(value);
+        return change;
     }
 
     @WithAccount("kevin")
@@ -242,6 +401,25 @@ class SettingsControllerTest {
         assertNull(kevin.getBio());
     }
 
+    @WithAccount("kevin")
+    @DisplayName("프로필 수정하기 - 사용할 수 없는 프로필 이미지")
+    @Test
+    void updateProfile_wrongImage() throws Exception {
+        for (String profileImage : List.of("not-a-data-url", "data:text/plain;base64,aGVsbG8=", "data:image/png;base64,!!!")) {
+            mockMvc.perform(post(ROOT + SETTINGS + PROFILE)
+                    .param("bio", "짧은 소개")
+                    .param("profileImage", profileImage)
+                    .with(csrf()))
+                    .andExpect(status().isOk())
+                    .andExpect(view().name(SETTINGS + PROFILE))
+                    .andExpect(model().attributeHasFieldErrors("profile", "profileImage"));
+        }
+
+        Account kevin = accountRepository.findByNickname("kevin");
+        assertNull(kevin.getBio());
+        assertNull(kevin.getProfileImage());
+    }
+
     @WithAccount("kevin")
     @DisplayName("패스워드 수정 폼")
     @Test
@@ -1,6 +1,7 @@
 package com.studyolle.study;
 
 import com.studyolle.WithAccount;
+import com.studyolle.config.CacheConfig;
 import com.studyolle.account.AccountRepository;
 import com.studyolle.domain.Account;
 import com.studyolle.domain.Study;
@@ -11,9 +12,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+
+import static com.studyolle.infra.jdbc.SqlStatisticsResultMatchers.noRepeatedQueries;
+import static com.studyolle.infra.jdbc.SqlStatisticsResultMatchers.sqlStatements;
+import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -30,6 +39,8 @@ class StudyControllerTest {
     @Autowired StudyService studyService;
     @Autowired StudyRepository studyRepository;
     @Autowired AccountRepository accountRepository;
+    @Autowired EntityManager entityManager;
+    @Autowired CacheManager cacheManager;
 
     @AfterEach
     void afterEach() {
@@ -86,6 +97,44 @@ class StudyControllerTest {
         assertNull(study);
     }
 
+    @Test
+    @WithAccount("kevin")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("스터디 개설 - 이미 있는 경로, 개설한 스터디는 캐시한 요약으로 조회")
+    void createStudy_duplicatedPath() throws Exception {
+        try {
+            mockMvc.perform(post("/new-study")
+                    .param("path", "test-path")
+                    .param("title", "study title")
+                    .param("shortDescription", "short description of a study")
+                    .param("fullDescription", "full description of a study")
+                    .with(csrf()))
+                    .andExpect(redirectedUrl("/study/test-path"));
+
+            // 커밋된 다음에 캐시에 넣은 스터디 요약을 사용하므로 현재 사용자와 관리자인지만 조회한다. (조인 없음)
+            mockMvc.perform(get("/study/test-path"))
+                    .andExpect(view().name("study/view"))
+                    .andExpect(model().attribute("membership", hasProperty("manager", is(true))))
+                    .andExpect(sqlStatements(lessThanOrEqualTo(2)));
+
+            mockMvc.perform(post("/new-study")
+                    .param("path", "test-path")
+                    .param("title", "another study")
+                    .param("shortDescription", "short description of a study")
+                    .param("fullDescription", "full description of a study")
+                    .with(csrf()))
+                    .andExpect(status().isOk())
+                    .andExpect(view().name("study/form"))
+                    .andExpect(model().attributeHasFieldErrorCode("studyForm", "path", "wrong.path"))
+                    .andExpect(model().attributeExists("account"));
+
+            assertEquals("study title", studyRepository.findByPath("test-path").getTitle());
+        } finally {
+            studyRepository.deleteAll();
+            cacheManager.getCache(CacheConfig.STUDY_SUMMARY).clear();
+        }
+    }
+
     @Test
     @WithAccount("kevin")
     @DisplayName("스터디 조회")
@@ -98,12 +147,55 @@ class StudyControllerTest {
 
         Account kevin = accountRepository.findByNickname("kevin");
         studyService.createNewStudy(study, kevin);
+        // 준비한 데이터를 먼저 DB에 반영해서 요청이 실행한 SQL만 센다.
+        entityManager.flush();
 
         mockMvc.perform(get("/study/test-path"))
                 .andExpect(view().name("study/view"))
                 .andExpect(model().attributeExists("account"))
-                .andExpect(model().attributeExists("study"));
+                .andExpect(model().attributeExists("study"))
+                .andExpect(model().attribute("membership", hasProperty("manager", is(true))))
+                .andExpect(model().attribute("membership", hasProperty("member", is(false))))
+                .andExpect(model().attribute("membership", hasProperty("joinable", is(false))))
+                .andExpect(sqlStatements(lessThanOrEqualTo(3)))
+                .andExpect(noRepeatedQueries());
     }
 
+    @Test
+    @WithAccount("kevin")
+    @DisplayName("스터디 구성원 조회 - 키셋 페이지네이션")
+    void viewStudyMembers() throws Exception {
+        Study study = new Study();
+        study.setPath("test-path");
+        study.setTitle("test study");
+        Account kevin = accountRepository.findByNickname("kevin");
+        studyService.createNewStudy(study, kevin);
+
+        for (int i = 0; i < 25; i++) {
+            Account member = accountRepository.save(Account.builder()
+                    .nickname("member" + i)
+                    .email("member" + i + "@email.com")
+                    .password("12345678")
+                    .build());
+            study.addMemeber(member);
+        }
+        // 준비한 데이터를 먼저 DB에 반영해서 요청이 실행한 SQL만 센다.
+        entityManager.flush();
+
+        MvcResult firstPage = mockMvc.perform(get("/study/test-path/members"))
+                .andExpect(view().name("study/members"))
+                .andExpect(model().attribute("study", hasProperty("memberCount", is(25))))
+                .andExpect(model().attribute("managers", hasSize(1)))
+                .andExpect(model().attribute("members", hasSize(20)))
+                .andExpect(model().attributeExists("nextAfter"))
+                .andExpect(sqlStatements(lessThanOrEqualTo(5)))
+                .andExpect(noRepeatedQueries())
+                .andReturn();
+
+        Long nextAfter = (Long) firstPage.getModelAndView().getModel().get("nextAfter");
+        mockMvc.perform(get("/study/test-path/members").param("after", nextAfter.toString()))
+                .andExpect(model().attributeDoesNotExist("managers", "nextAfter"))
+                .andExpect(model().attribute("members", hasSize(5)));
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.studyolle.tag;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TagServiceTest {
+
+    static final int THREADS = 16;
+    static final int ROUNDS = 20;
+
+    @Autowired TagService tagService;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired Cache<String, Long> tagIdCache;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from tag where title like 'concurrent-%'");
+        tagIdCache.invalidateAll();
+    }
+
+    @DisplayName("여러 스레드가 동시에 같은 새 태그를 추가해도 태그는 하나만 만들어지고, 모두 같은 id를 받는다")
+    @Test
+    void concurrentGetOrCreate() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String title = "concurrent-" + round;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Long>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    Callable<Long> task = () -> {
+                        start.await();
+                        return tagService.getOrCreateTagId(title);
+                    };
+                    futures.add(executor.submit(task));
+                }
+                start.countDown();
+
+                Set<Long> ids = new HashSet<>();
+                for (Future<Long> future : futures) {
+                    ids.add(future.get());
+                }
+                assertEquals(1, ids.size(), title);
+                assertEquals(ids.iterator().next(), jdbcTemplate.queryForObject(
+                        "select id from tag where title = ?", Long.class, title));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("이미 있는 태그는 새로 만들지 않는다")
+    @Test
+    void existingTag() {
+        Long id = tagService.getOrCreateTagId("concurrent-existing");
+
+        assertEquals(id, tagService.getOrCreateTagId("concurrent-existing"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from tag where title = ?", Integer.class, "concurrent-existing"));
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.studyolle.zone;
+
+import com.studyolle.config.AppProperties;
+import com.studyolle.domain.Zone;
+import com.studyolle.settings.WhitelistService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ZoneImporterTest {
+
+    @Autowired ZoneImporter zoneImporter;
+    @Autowired ZoneRepository zoneRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired WhitelistService whitelistService;
+    @Autowired AppProperties appProperties;
+
+    @AfterEach
+    void afterEach() {
+        zoneRepository.findAll().stream()
+                .filter(zone -> zone.getCity().startsWith("Test"))
+                .forEach(zoneRepository::delete);
+    }
+
+    private static ByteArrayResource csv(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8), "test zones");
+    }
+
+    @DisplayName("서버가 시작될 때 기본 지역 정보를 읽고, 다시 읽어도 바뀌는 것이 없다")
+    @Test
+    void importBundledZones() throws Exception {
+        long count = zoneRepository.count();
+        assertTrue(count > 0);
+
+        ZoneImportResult result = zoneImporter.importZones(new ClassPathResource(ZoneService.ZONES_KR));
+
+        assertEquals(0, result.getInserted());
+        assertEquals(0, result.getUpdated());
+        assertEquals(count, result.getUnchanged());
+        assertEquals(count, zoneRepository.count());
+    }
+
+    @DisplayName("없는 지역은 추가하고, 한글 이름이 바뀐 지역은 수정한다")
+    @Test
+    void upsert() throws Exception {
+        ZoneImportResult result = zoneImporter.importZones(csv(
+                "TestCity1,테스트시1,TestProvince\n" +
+                "TestCity2,테스트시2,TestProvince\n" +
+                "TestCity2,테스트2시,TestProvince\n" +
+                "TestCity3,테스트시3,\n" +
+                "wrong line\n" +
+                "\n"));
+
+        assertEquals(3, result.getInserted());
+        assertEquals(0, result.getUpdated());
+        assertEquals(1, result.getSkipped());
+        assertEquals("테스트2시", zoneRepository.findByCityAndProvince("TestCity2", "TestProvince").getLocalNameOfCity());
+
+        result = zoneImporter.importZones(csv(
+                "TestCity1,테스트시1,TestProvince\n" +
+                "TestCity2,테스트시2,TestProvince\n" +
+                "TestCity3,테스트시3,\n"));
+
+        assertEquals(0, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(2, result.getUnchanged());
+        assertEquals("테스트시2", zoneRepository.findByCityAndProvince("TestCity2", "TestProvince").getLocalNameOfCity());
+    }
+
+    @DisplayName("여러 서버가 동시에 같은 파일을 읽어도 지역은 하나씩만 만들어진다")
+    @Test
+    void concurrentImport() throws Exception {
+        // 서버마다 ZoneImporter가 하나씩 있으므로 importZones의 synchronized로는 막을 수 없다.
+        ZoneImporter otherServer = new ZoneImporter(jdbcTemplate, transactionManager, entityManagerFactory,
+                whitelistService, appProperties);
+
+        StringBuilder content = new StringBuilder();
+        for (int i = 1; i <= 300; i++) {
+            content.append("TestCity").append(i).append(",테스트시").append(i).append(",TestProvince\n");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ZoneImportResult> first = executor.submit(() -> zoneImporter.importZones(csv(content.toString())));
+            Future<ZoneImportResult> second = executor.submit(() -> otherServer.importZones(csv(content.toString())));
+
+            assertEquals(300, first.get().getInserted() + second.get().getInserted());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(300, zoneRepository.findAll().stream().filter(zone -> zone.getCity().startsWith("Test")).count());
+    }
+
+    @DisplayName("JPA로 저장하는 지역과 id가 겹치지 않는다")
+    @Test
+    void sharedSequence() throws Exception {
+        Zone saved = zoneRepository.save(Zone.builder().city("TestCity0").localNameOfCity("테스트시0").province("TestProvince").build());
+
+        StringBuilder content = new StringBuilder();
+        for (int i = 1; i <= Zone.ID_ALLOCATION_SIZE * 2; i++) {
+            content.append("TestCity").append(i).append(",테스트시").append(i).append(",TestProvince\n");
+        }
+        zoneImporter.importZones(csv(content.toString()));
+
+        Zone savedAfter = zoneRepository.save(Zone.builder().city("TestCityLast").localNameOfCity("테스트시").province("TestProvince").build());
+
+        assertNotEquals(saved.getId(), savedAfter.getId());
+        assertEquals(Zone.ID_ALLOCATION_SIZE * 2 + 2,
+                zoneRepository.findAll().stream().filter(zone -> zone.getCity().startsWith("Test")).count());
+    }
+
+}